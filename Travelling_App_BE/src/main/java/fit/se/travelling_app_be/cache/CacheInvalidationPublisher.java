@@ -0,0 +1,13 @@
+package fit.se.travelling_app_be.cache;
+
+/**
+ * Tells the other application nodes to drop an entry (or a whole cache) from their local tier.
+ */
+public interface CacheInvalidationPublisher {
+    
+    // Single-node deployments have nobody to notify
+    CacheInvalidationPublisher NONE = (cacheName, key) -> { };
+    
+    // key == null means the whole cache was cleared
+    void publish(String cacheName, Object key);
+}
@@ -0,0 +1,16 @@
+package fit.se.travelling_app_be.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A rendered JSON response kept as ready-to-send bytes, plain and gzipped
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedResponse {
+    private byte[] body;
+    private byte[] gzippedBody;
+    private String etag;
+    private long lastModified; // epoch millis, -1 when unknown
+}
@@ -0,0 +1,72 @@
+package fit.se.travelling_app_be.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fit.se.travelling_app_be.config.CacheConfig;
+import fit.se.travelling_app_be.entity.Destination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized (and pre-gzipped) bodies of the hot catalog list endpoints.
+ * The ETag is derived from the ids and updatedAt of the listed destinations, and
+ * Last-Modified is the newest updatedAt, so clients can revalidate without a body.
+ * Entries live in the catalogResponses cache and are dropped on any destination write.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseCache {
+    
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    
+    public CachedResponse get(String key, Supplier<List<Destination>> loader) {
+        return cacheManager.getCache(CacheConfig.CATALOG_RESPONSES).get(key, () -> render(loader.get()));
+    }
+    
+    private CachedResponse render(List<Destination> destinations) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(destinations);
+            return new CachedResponse(body, gzip(body), etagOf(destinations), lastModifiedOf(destinations));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String etagOf(List<Destination> destinations) {
+        CRC32 checksum = new CRC32();
+        for (Destination destination : destinations) {
+            checksum.update(String.valueOf(destination.getId()).getBytes(StandardCharsets.UTF_8));
+            checksum.update(String.valueOf(destination.getUpdatedAt()).getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + destinations.size() + "-" + Long.toHexString(checksum.getValue()) + "\"";
+    }
+    
+    private static long lastModifiedOf(List<Destination> destinations) {
+        return destinations.stream()
+            .map(destination -> destination.getUpdatedAt() != null ? destination.getUpdatedAt() : destination.getCreatedAt())
+            .filter(timestamp -> timestamp != null)
+            .max(LocalDateTime::compareTo)
+            .map(timestamp -> timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+            .orElse(-1L);
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+}
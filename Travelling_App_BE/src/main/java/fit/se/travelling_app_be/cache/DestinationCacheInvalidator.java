@@ -0,0 +1,42 @@
+package fit.se.travelling_app_be.cache;
+
+import fit.se.travelling_app_be.config.CacheConfig;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Destination writes and rating updates drop the cached entity, every cached list and the rendered responses;
+// a bulk catalog import drops everything
+@Component
+@RequiredArgsConstructor
+public class DestinationCacheInvalidator {
+    
+    private final CacheManager cacheManager;
+    
+    @EventListener
+    public void onDestinationChanged(DestinationChangedEvent event) {
+        Cache destinations = cacheManager.getCache(CacheConfig.DESTINATIONS);
+        if (destinations != null) {
+            destinations.evict(event.getDestinationId());
+        }
+        clear(CacheConfig.DESTINATION_LISTS, CacheConfig.CATALOG_RESPONSES);
+    }
+    
+    @EventListener
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        clear(CacheConfig.DESTINATIONS, CacheConfig.DESTINATION_LISTS, CacheConfig.CATALOG_RESPONSES);
+    }
+    
+    private void clear(String... cacheNames) {
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package fit.se.travelling_app_be.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Broadcasts cache evictions over a Redis pub/sub channel as "node|cache|key"
+ * ("*" as key for a full clear). Messages from this node are ignored on receipt.
+ */
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationPublisher {
+    
+    public static final String CHANNEL = "travelling-app:cache-invalidation";
+    private static final String SEPARATOR = "|";
+    private static final String ALL_KEYS = "*";
+    
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+    }
+    
+    @Override
+    public void publish(String cacheName, Object key) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? ALL_KEYS : key.toString());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // Other nodes fall back to L1 expiry
+            log.error("❌ Could not broadcast cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+    
+    public void onMessage(String message, TwoTierCacheManager cacheManager) {
+        String[] parts = message.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        cacheManager.evictLocal(parts[1], ALL_KEYS.equals(parts[2]) ? null : parts[2]);
+    }
+}
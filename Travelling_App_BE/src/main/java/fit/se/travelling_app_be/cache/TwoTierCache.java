@@ -0,0 +1,147 @@
+package fit.se.travelling_app_be.cache;
+
+import fit.se.travelling_app_be.dto.response.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring Cache backed by a bounded in-process Caffeine cache (L1) in front of an optional
+ * shared cache (L2, Redis in production). Reads fall through L1 -> L2 -> loader and
+ * populate the faster tiers on the way back; evictions clear both tiers and are
+ * broadcast so other nodes drop their L1 copy.
+ */
+public class TwoTierCache implements Cache {
+    
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote; // null when running without a shared tier
+    private final CacheInvalidationPublisher invalidationPublisher;
+    
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                        Cache remote, CacheInvalidationPublisher invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+    
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        
+        if (remote != null) {
+            ValueWrapper remoteValue = remote.get(key);
+            if (remoteValue != null && remoteValue.get() != null) {
+                remoteHits.increment();
+                local.put(key, remoteValue.get());
+                return remoteValue;
+            }
+        }
+        
+        misses.increment();
+        return null;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        
+        // Caffeine runs at most one loader per key on this node
+        return (T) local.get(key, k -> {
+            try {
+                T value = valueLoader.call();
+                if (remote != null && value != null) {
+                    remote.put(k, value);
+                }
+                return value;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        });
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        local.put(key, value);
+        if (remote != null) {
+            remote.put(key, value);
+        }
+    }
+    
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (remote != null) {
+            remote.evict(key);
+        }
+        evictions.increment();
+        invalidationPublisher.publish(name, key);
+    }
+    
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (remote != null) {
+            remote.clear();
+        }
+        evictions.increment();
+        invalidationPublisher.publish(name, null);
+    }
+    
+    // Applied when another node evicted the entry; its L2 copy is already gone
+    public void evictLocal(Object key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+    
+    public CacheStats stats() {
+        long hits = localHits.sum() + remoteHits.sum();
+        long total = hits + misses.sum();
+        return new CacheStats(name, localHits.sum(), remoteHits.sum(), misses.sum(), evictions.sum(),
+            local.estimatedSize(), total == 0 ? 0 : (double) hits / total);
+    }
+}
@@ -0,0 +1,61 @@
+package fit.se.travelling_app_be.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fit.se.travelling_app_be.dto.response.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class TwoTierCacheManager implements CacheManager {
+    
+    private final long localMaximumSize;
+    private final Duration localTimeToLive;
+    private final CacheManager remoteCacheManager; // null when running without a shared tier
+    private final CacheInvalidationPublisher invalidationPublisher;
+    
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    
+    public TwoTierCacheManager(long localMaximumSize, Duration localTimeToLive,
+                               CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher) {
+        this.localMaximumSize = localMaximumSize;
+        this.localTimeToLive = localTimeToLive;
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+    
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+    
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+    
+    public void evictLocal(String cacheName, Object key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+    
+    public List<CacheStats> stats() {
+        return caches.values().stream().map(TwoTierCache::stats).toList();
+    }
+    
+    private TwoTierCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTimeToLive)
+            .build();
+        Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+        return new TwoTierCache(name, local, remote, invalidationPublisher);
+    }
+}
@@ -0,0 +1,205 @@
+package fit.se.travelling_app_be.cluster;
+
+import fit.se.travelling_app_be.entity.JobLease;
+import fit.se.travelling_app_be.entity.JobMember;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a scheduled job into a fixed number of partitions and spreads their leases over the
+ * live nodes. On every heartbeat a node refreshes its membership, renews the leases it holds,
+ * hands back leases above its fair share (partitions / live nodes, rounded up) and takes free
+ * or expired ones up to it, so a joining node gets its share and a dead node's partitions move
+ * to the survivors. Heartbeats run every lease / 3 and write leases valid for 2/3 of the lease,
+ * so a dead node's partitions are taken over within one lease period.
+ *
+ * Every acquisition increments the partition's fencing token. Work done under a lease calls
+ * fence() with that token as it goes and stops once another node has taken the partition over.
+ */
+@Slf4j
+public class PartitionLeaseManager {
+    
+    private final MongoTemplate mongoTemplate;
+    @Getter
+    private final String job;
+    @Getter
+    private final String nodeId;
+    @Getter
+    private final int partitions;
+    private final Duration validity;
+    private final Duration heartbeatInterval;
+    
+    private final Map<Integer, Long> owned = new ConcurrentHashMap<>(); // partition -> fencing token
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile LocalDateTime validUntil;
+    private final ScheduledExecutorService heartbeatExecutor;
+    
+    public PartitionLeaseManager(MongoTemplate mongoTemplate, String job, String nodeId, int partitions, Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.job = job;
+        this.nodeId = nodeId;
+        this.partitions = partitions;
+        this.validity = lease.multipliedBy(2).dividedBy(3);
+        this.heartbeatInterval = lease.dividedBy(3);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-" + job);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void start() {
+        heartbeatExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                heartbeat();
+            } catch (Exception e) {
+                // Leases not renewed in time lapse and are taken over; this node stops using them via validUntil
+                log.error("❌ Error renewing {} leases: {}", job, e.getMessage());
+            }
+        }, 0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    // Hands every partition back right away instead of letting the leases run out
+    public synchronized void stop() {
+        heartbeatExecutor.shutdownNow();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            owned.forEach((partition, token) -> release(partition, token, now));
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(memberId())), JobMember.class);
+        } catch (Exception e) {
+            log.error("❌ Error releasing {} leases: {}", job, e.getMessage());
+        }
+        validUntil = null;
+        if (!owned.isEmpty()) {
+            owned.clear();
+            listeners.forEach(Runnable::run);
+        }
+    }
+    
+    public synchronized void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(validity);
+        Set<Integer> before = Set.copyOf(owned.keySet());
+        
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(memberId())),
+            new Update().set("job", job).set("nodeId", nodeId).set("expiresAt", expiresAt), JobMember.class);
+        long liveNodes = mongoTemplate.count(
+            Query.query(Criteria.where("job").is(job).and("expiresAt").gt(now)), JobMember.class);
+        int fairShare = (int) Math.ceil(partitions / (double) Math.max(liveNodes, 1));
+        
+        for (Iterator<Map.Entry<Integer, Long>> iterator = owned.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Integer, Long> lease = iterator.next();
+            Update renewal = new Update().set("expiresAt", expiresAt).set("renewedAt", now);
+            if (mongoTemplate.updateFirst(leaseQuery(lease.getKey(), lease.getValue()), renewal, JobLease.class)
+                    .getMatchedCount() == 0) {
+                log.warn("Lost lease on {} partition {}", job, lease.getKey());
+                iterator.remove();
+            }
+        }
+        
+        while (owned.size() > fairShare) {
+            int partition = owned.keySet().stream().max(Integer::compare).orElseThrow();
+            release(partition, owned.remove(partition), now);
+        }
+        
+        if (owned.size() < fairShare) {
+            acquire(fairShare, now, expiresAt);
+        }
+        validUntil = expiresAt;
+        
+        if (!owned.keySet().equals(before)) {
+            log.info("Node {} now holds {} partitions {}", nodeId, job, owned.keySet());
+            listeners.forEach(Runnable::run);
+        }
+    }
+    
+    // Partitions this node may work on right now, each with the token to pass to fence()
+    public Map<Integer, Long> ownedPartitions() {
+        LocalDateTime until = validUntil;
+        if (until == null || !LocalDateTime.now().isBefore(until)) {
+            return Map.of(); // not renewed in time; another node may already have taken over
+        }
+        return Map.copyOf(owned);
+    }
+    
+    // True while this node still holds the partition under that token
+    public boolean fence(int partition, long token) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = leaseQuery(partition, token).addCriteria(Criteria.where("expiresAt").gt(now));
+        return mongoTemplate.updateFirst(query, Update.update("checkpointAt", now), JobLease.class)
+            .getMatchedCount() == 1;
+    }
+    
+    // Runs on the heartbeat thread whenever the set of owned partitions changes
+    public void onChange(Runnable listener) {
+        listeners.add(listener);
+    }
+    
+    private void acquire(int fairShare, LocalDateTime now, LocalDateTime expiresAt) {
+        Map<Integer, JobLease> leases = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("job").is(job)), JobLease.class)
+            .forEach(lease -> leases.put(lease.getPartition(), lease));
+        
+        // Nodes start from different partitions so they do not all race for the same lease
+        int offset = Math.floorMod(nodeId.hashCode(), partitions);
+        for (int i = 0; i < partitions && owned.size() < fairShare; i++) {
+            int partition = (offset + i) % partitions;
+            JobLease current = leases.get(partition);
+            if (owned.containsKey(partition) || (current != null && current.getExpiresAt().isAfter(now))) {
+                continue;
+            }
+            Query query = Query.query(Criteria.where("id").is(leaseId(partition)).and("expiresAt").lt(now));
+            Update update = new Update()
+                .set("job", job)
+                .set("partition", partition)
+                .set("owner", nodeId)
+                .set("expiresAt", expiresAt)
+                .set("renewedAt", now)
+                .inc("token", 1);
+            try {
+                JobLease lease = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class);
+                if (lease != null) {
+                    owned.put(partition, lease.getToken());
+                }
+            } catch (DuplicateKeyException e) {
+                // Another node took it first
+            }
+        }
+    }
+    
+    private void release(int partition, long token, LocalDateTime now) {
+        mongoTemplate.updateFirst(leaseQuery(partition, token), Update.update("expiresAt", now), JobLease.class);
+    }
+    
+    private Query leaseQuery(int partition, long token) {
+        return Query.query(Criteria.where("id").is(leaseId(partition)).and("owner").is(nodeId).and("token").is(token));
+    }
+    
+    private String leaseId(int partition) {
+        return job + ":" + partition;
+    }
+    
+    private String memberId() {
+        return job + ":" + nodeId;
+    }
+}
@@ -0,0 +1,44 @@
+package fit.se.travelling_app_be.cluster;
+
+import fit.se.travelling_app_be.entity.Booking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bookings (and the reminders derived from them) are spread over a fixed number of shards by
+ * hash of userId. A job split into P partitions gives partition p the shards s with s % P == p,
+ * so the partition count can change without rewriting a single document.
+ */
+public final class Partitioning {
+    
+    public static final int SHARDS = 1024;
+    
+    private Partitioning() {
+    }
+    
+    public static int shardOf(Booking booking) {
+        String key = booking.getUserId() != null ? booking.getUserId() : "";
+        return Math.floorMod(key.hashCode(), SHARDS);
+    }
+    
+    // Documents written before shards existed have none; they belong to partition 0
+    public static List<Integer> shardsOf(int partition, int partitions) {
+        List<Integer> shards = new ArrayList<>();
+        if (partition == 0) {
+            shards.add(null);
+        }
+        for (int shard = partition; shard < SHARDS; shard += partitions) {
+            shards.add(shard);
+        }
+        return shards;
+    }
+    
+    public static List<Integer> shardsOf(Iterable<Integer> partitionIds, int partitions) {
+        List<Integer> shards = new ArrayList<>();
+        for (int partition : partitionIds) {
+            shards.addAll(shardsOf(partition, partitions));
+        }
+        return shards;
+    }
+}
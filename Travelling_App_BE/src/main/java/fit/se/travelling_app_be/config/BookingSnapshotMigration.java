@@ -0,0 +1,136 @@
+package fit.se.travelling_app_be.config;
+
+import com.mongodb.DBRef;
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.DestinationSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Online backfill that replaces the legacy Booking.destination DBRef with an embedded
+ * DestinationSnapshot. Runs in the background after startup, walking bookings in _id order
+ * in small batches: one destinations query and one unordered bulk write per batch.
+ * Until a booking is rewritten, reading it still resolves the DBRef, so the app keeps
+ * working while the migration runs; rerunning it is a no-op once nothing is left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSnapshotMigration {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-snapshot-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Value("${app.migration.booking-snapshot.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.migration.booking-snapshot.pause-between-batches:PT0.1S}")
+    private Duration pauseBetweenBatches;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::migrate);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void migrate() {
+        String collection = mongoTemplate.getCollectionName(Booking.class);
+        Object lastId = null;
+        long migrated = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Criteria legacy = Criteria.where("destination.$ref").exists(true);
+                if (lastId != null) {
+                    legacy.and("_id").gt(lastId);
+                }
+                Query query = new Query(legacy).with(Sort.by("_id")).limit(batchSize);
+                query.fields().include("destination");
+                List<Document> bookings = mongoTemplate.find(query, Document.class, collection);
+                if (bookings.isEmpty()) {
+                    break;
+                }
+                
+                migrated += migrateBatch(bookings, collection);
+                lastId = bookings.get(bookings.size() - 1).get("_id");
+                Thread.sleep(pauseBetweenBatches.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ Error migrating booking destinations after {} bookings: {}", migrated, e.getMessage());
+            return;
+        }
+        if (migrated > 0) {
+            log.info("Embedded destination snapshots into {} bookings", migrated);
+        }
+    }
+    
+    private int migrateBatch(List<Document> bookings, String collection) {
+        Map<Object, Object> destinationIdByBooking = new HashMap<>();
+        for (Document booking : bookings) {
+            destinationIdByBooking.put(booking.get("_id"), referencedId(booking.get("destination")));
+        }
+        
+        Map<String, Destination> destinations = new HashMap<>();
+        Query destinationQuery = Query.query(Criteria.where("_id").in(destinationIdByBooking.values()));
+        mongoTemplate.find(destinationQuery, Destination.class)
+            .forEach(destination -> destinations.put(destination.getId(), destination));
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        destinationIdByBooking.forEach((bookingId, destinationId) -> {
+            Destination destination = destinationId != null ? destinations.get(destinationId.toString()) : null;
+            // A deleted destination still gets a snapshot with its id, so the booking is not retried forever
+            DestinationSnapshot snapshot = destination != null ? DestinationSnapshot.of(destination) : new DestinationSnapshot();
+            if (destination == null && destinationId != null) {
+                snapshot.setId(destinationId.toString());
+            }
+            
+            Document embedded = new Document();
+            mongoTemplate.getConverter().write(snapshot, embedded);
+            embedded.remove("_class");
+            
+            Query booking = Query.query(Criteria.where("_id").is(bookingId).and("destination.$ref").exists(true));
+            bulk.updateOne(booking, Update.update("destination", embedded));
+        });
+        return bulk.execute().getModifiedCount();
+    }
+    
+    private static Object referencedId(Object reference) {
+        if (reference instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (reference instanceof Document document) {
+            return document.get("$id");
+        }
+        return null;
+    }
+}
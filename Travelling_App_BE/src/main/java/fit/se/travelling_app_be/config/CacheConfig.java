@@ -0,0 +1,102 @@
+package fit.se.travelling_app_be.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fit.se.travelling_app_be.cache.CacheInvalidationPublisher;
+import fit.se.travelling_app_be.cache.RedisCacheInvalidationBus;
+import fit.se.travelling_app_be.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Two-tier caching: a local Caffeine tier on every node, backed by Redis when
+ * app.cache.redis.enabled=true. Without Redis the app runs with the local tier only.
+ */
+@Configuration
+public class CacheConfig {
+    
+    public static final String DESTINATIONS = "destinations";
+    public static final String DESTINATION_LISTS = "destinationLists";
+    public static final String CATALOG_RESPONSES = "catalogResponses";
+    
+    // Identifies this node on the invalidation channel
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    @Value("${app.cache.local.maximum-size:1000}")
+    private long localMaximumSize;
+    
+    @Value("${app.cache.local.time-to-live:5m}")
+    private Duration localTimeToLive;
+    
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+    
+    @Value("${app.cache.redis.time-to-live:10m}")
+    private Duration redisTimeToLive;
+    
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if (!redisEnabled) {
+            return CacheInvalidationPublisher.NONE;
+        }
+        return new RedisCacheInvalidationBus(redisTemplate.getObject(), nodeId);
+    }
+    
+    @Bean
+    public TwoTierCacheManager cacheManager(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                            CacheInvalidationPublisher invalidationPublisher) {
+        RedisCacheManager remoteCacheManager = null;
+        if (redisEnabled) {
+            RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(redisTimeToLive)
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer()));
+            remoteCacheManager = RedisCacheManager.builder(connectionFactory.getObject())
+                .cacheDefaults(configuration)
+                .build();
+            remoteCacheManager.afterPropertiesSet();
+        }
+        return new TwoTierCacheManager(localMaximumSize, localTimeToLive, remoteCacheManager, invalidationPublisher);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoTierCacheManager cacheManager,
+                                                                   CacheInvalidationPublisher invalidationPublisher) {
+        RedisCacheInvalidationBus bus = (RedisCacheInvalidationBus) invalidationPublisher;
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> bus.onMessage(new String(message.getBody(), StandardCharsets.UTF_8), cacheManager),
+            new ChannelTopic(RedisCacheInvalidationBus.CHANNEL));
+        return container;
+    }
+    
+    // JSON with type information so lists and entities round-trip through Redis
+    private GenericJackson2JsonRedisSerializer redisValueSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+}
@@ -0,0 +1,63 @@
+package fit.se.travelling_app_be.config;
+
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import fit.se.travelling_app_be.service.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Seeds an empty database from the bundled catalog, or imports catalog files given on the
+ * command line:
+ * <pre>
+ * java -jar app.jar --import-catalog=destinations.ndjson.gz [--import-catalog=more.json] [--exit-after-import]
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportRunner implements ApplicationRunner {
+    
+    private static final String IMPORT_OPTION = "import-catalog";
+    private static final String EXIT_OPTION = "exit-after-import";
+    private static final String SEED_CATALOG = "catalog/world-destinations.ndjson";
+    
+    private final CatalogImportService catalogImportService;
+    private final DestinationRepository destinationRepository;
+    private final ApplicationContext applicationContext;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(IMPORT_OPTION)) {
+            // Only create sample data if database is empty
+            if (destinationRepository.count() == 0) {
+                try (InputStream input = new ClassPathResource(SEED_CATALOG).getInputStream()) {
+                    catalogImportService.importCatalog(input, SEED_CATALOG);
+                }
+            }
+            return;
+        }
+        
+        int exitCode = 0;
+        for (String path : args.getOptionValues(IMPORT_OPTION)) {
+            try {
+                catalogImportService.importCatalog(Path.of(path));
+            } catch (Exception e) {
+                log.error("❌ Error importing catalog {}: {}", path, e.getMessage());
+                exitCode = 1;
+            }
+        }
+        if (args.containsOption(EXIT_OPTION)) {
+            int status = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> status));
+        }
+    }
+}
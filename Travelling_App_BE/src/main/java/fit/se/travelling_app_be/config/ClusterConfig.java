@@ -0,0 +1,50 @@
+package fit.se.travelling_app_be.config;
+
+import fit.se.travelling_app_be.cluster.PartitionLeaseManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Jobs that every node would otherwise run in full are split into leased partitions, so with
+ * N nodes each one works on about 1/N of the data (see PartitionLeaseManager).
+ */
+@Configuration
+public class ClusterConfig {
+    
+    public static final String REMINDERS_JOB = "reminders";
+    public static final String BOOKING_COMPLETION_JOB = "booking-completion";
+    
+    @Value("${app.cluster.node-id:}")
+    private String nodeId;
+    
+    @Value("${app.cluster.lease:PT30S}")
+    private Duration lease;
+    
+    private String node;
+    
+    // Reminder backstop scan (NotificationSchedulerService) and reminder loading (ReminderEngine)
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public PartitionLeaseManager reminderLeases(MongoTemplate mongoTemplate,
+                                                @Value("${app.cluster.reminders.partitions:16}") int partitions) {
+        return new PartitionLeaseManager(mongoTemplate, REMINDERS_JOB, node(), partitions, lease);
+    }
+    
+    // A single partition: whichever node holds it runs BookingCompletionService
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public PartitionLeaseManager bookingCompletionLeases(MongoTemplate mongoTemplate) {
+        return new PartitionLeaseManager(mongoTemplate, BOOKING_COMPLETION_JOB, node(), 1, lease);
+    }
+    
+    // One id per node, shared by all of its jobs
+    private synchronized String node() {
+        if (node == null) {
+            node = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        }
+        return node;
+    }
+}
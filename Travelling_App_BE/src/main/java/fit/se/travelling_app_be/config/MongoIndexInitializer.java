@@ -0,0 +1,153 @@
+package fit.se.travelling_app_be.config;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.DepartureInventory;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.IdempotencyRecord;
+import fit.se.travelling_app_be.entity.JobMember;
+import fit.se.travelling_app_be.entity.RatingJournalEntry;
+import fit.se.travelling_app_be.entity.Review;
+import fit.se.travelling_app_be.entity.ScheduledReminder;
+import fit.se.travelling_app_be.entity.SeatHold;
+import fit.se.travelling_app_be.model.Notification;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * auto-index-creation is disabled, so the indexes that back our query patterns are
+ * declared here and created (idempotently) on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexInitializer {
+    
+    static final String UNIQUE_REMINDER_INDEX = "relatedId_reminderType_unique_idx";
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @PostConstruct
+    public void ensureIndexes() {
+        // Keyset pagination of destination cards: (sort field, _id)
+        ensure(Destination.class, new Index().named("name_id_idx")
+            .on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        ensure(Destination.class, new Index().named("rating_id_idx")
+            .on("rating", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        ensure(Destination.class, new Index().named("reviewCount_id_idx")
+            .on("reviewCount", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        ensure(Destination.class, new Index().named("category_rating_id_idx")
+            .on("category", Sort.Direction.ASC).on("rating", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        
+        // Catalog import upserts on (name, country)
+        ensure(Destination.class, new Index().named("name_country_idx")
+            .on("name", Sort.Direction.ASC).on("country", Sort.Direction.ASC));
+        
+        // Review feed: equality on destinationId, sort on (createdAt, _id), minRating checked on the index key
+        ensure(Review.class, new Index().named("destinationId_createdAt_id_rating_idx")
+            .on("destinationId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC).on("rating", Sort.Direction.ASC));
+        
+        // Profile propagation walks a user's reviews in _id order
+        ensure(Review.class, new Index().named("userId_id_idx")
+            .on("userId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        
+        // Seat inventory: one document per departure; holds are swept by (status, expiresAt) and released by booking
+        ensure(DepartureInventory.class, new Index().named("destination_departure_idx")
+            .on("destinationId", Sort.Direction.ASC).on("departureDate", Sort.Direction.ASC).unique());
+        ensure(SeatHold.class, new Index().named("status_expiresAt_idx")
+            .on("status", Sort.Direction.ASC).on("expiresAt", Sort.Direction.ASC));
+        ensure(SeatHold.class, new Index().named("bookingId_idx").on("bookingId", Sort.Direction.ASC));
+        
+        // Paginated booking lists: per user by travel date, optionally narrowed by status
+        ensure(Booking.class, new Index().named("userId_status_travelDate_id_idx")
+            .on("userId", Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+            .on("travelDate", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        ensure(Booking.class, new Index().named("userId_travelDate_id_idx")
+            .on("userId", Sort.Direction.ASC).on("travelDate", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        
+        // Scheduled booking jobs scan by status and travel date
+        ensure(Booking.class, new Index().named("status_travelDate_idx")
+            .on("status", Sort.Direction.ASC).on("travelDate", Sort.Direction.ASC));
+        
+        // At most one reminder of each type per booking; ReminderDedupMigration builds it where duplicates exist
+        drop(Notification.class, "relatedId_reminderType_idx");
+        ensureUniqueReminderIndex();
+        
+        // Scheduled reminders: each node loads the next window of pending ones for its shards
+        drop(ScheduledReminder.class, "status_dueAt_idx");
+        ensure(ScheduledReminder.class, new Index().named("status_shard_dueAt_idx")
+            .on("status", Sort.Direction.ASC).on("shard", Sort.Direction.ASC).on("dueAt", Sort.Direction.ASC));
+        ensure(ScheduledReminder.class, new Index().named("bookingId_status_idx")
+            .on("bookingId", Sort.Direction.ASC).on("status", Sort.Direction.ASC));
+        // Sent and cancelled reminders are kept until their booking has departed, then dropped
+        ensure(ScheduledReminder.class, new Index().named("finishedAt_ttl_idx")
+            .on("finishedAt", Sort.Direction.ASC).expire(Duration.ofDays(8)));
+        
+        // Reminder backstop scan of one partition's shards
+        ensure(Booking.class, new Index().named("shard_status_travelDate_idx")
+            .on("shard", Sort.Direction.ASC).on("status", Sort.Direction.ASC).on("travelDate", Sort.Direction.ASC));
+        
+        // Partitioned job members: nodes gone for good are dropped once their heartbeat lapses
+        ensure(JobMember.class, new Index().named("expiresAt_ttl_idx")
+            .on("expiresAt", Sort.Direction.ASC).expire(0));
+        
+        // Notification history, stream resume (Last-Event-ID) and the unread badge
+        ensure(Notification.class, new Index().named("userId_createdAt_idx")
+            .on("userId", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC));
+        ensure(Notification.class, new Index().named("userId_read_idx")
+            .on("userId", Sort.Direction.ASC).on("read", Sort.Direction.ASC));
+        
+        // Booking outbox: only bookings with undelivered events carry outboxDueAt
+        ensure(Booking.class, new Index().named("outboxDueAt_idx")
+            .on("outboxDueAt", Sort.Direction.ASC).sparse());
+        
+        // Idempotency keys: Mongo drops each record once its expiresAt has passed
+        ensure(IdempotencyRecord.class, new Index().named("expiresAt_ttl_idx")
+            .on("expiresAt", Sort.Direction.ASC).expire(0));
+        
+        // Rating journal: claims and replays look up entries by batch and age
+        ensure(RatingJournalEntry.class, new Index().named("batchId_createdAt_idx")
+            .on("batchId", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC));
+        // The reconciler skips destinations with pending entries
+        ensure(RatingJournalEntry.class, new Index().named("destinationId_idx")
+            .on("destinationId", Sort.Direction.ASC));
+    }
+    
+    // Notifications without a reminderType are not indexed
+    void ensureUniqueReminderIndex() {
+        ensure(Notification.class, new Index().named(UNIQUE_REMINDER_INDEX)
+            .on("relatedId", Sort.Direction.ASC).on("reminderType", Sort.Direction.ASC)
+            .unique()
+            .partial(PartialIndexFilter.of(Criteria.where("reminderType").exists(true))));
+    }
+    
+    private void drop(Class<?> entityClass, String indexName) {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+            if (indexOps.getIndexInfo().stream().anyMatch(info -> info.getName().equals(indexName))) {
+                indexOps.dropIndex(indexName);
+            }
+        } catch (Exception e) {
+            log.error("❌ Could not drop index {} on {}: {}", indexName, entityClass.getSimpleName(), e.getMessage());
+        }
+    }
+    
+    private void ensure(Class<?> entityClass, Index index) {
+        try {
+            mongoTemplate.indexOps(entityClass).createIndex(index);
+        } catch (Exception e) {
+            log.error("❌ Could not create index {} on {}: {}",
+                index.getIndexOptions().get("name"), entityClass.getSimpleName(), e.getMessage());
+        }
+    }
+}
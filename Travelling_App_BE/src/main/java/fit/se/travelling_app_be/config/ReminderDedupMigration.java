@@ -0,0 +1,81 @@
+package fit.se.travelling_app_be.config;
+
+import fit.se.travelling_app_be.model.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-time cleanup of reminders that were sent twice before the unique (relatedId, reminderType)
+ * index existed; while they are there the index cannot be built. Runs in the background after
+ * startup and only while the index is missing, so once it has been built every later boot is a
+ * single index lookup. The oldest reminder of each group is the one kept, so nodes running it
+ * at the same time agree on what to delete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderDedupMigration {
+    
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexInitializer indexInitializer;
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-dedup-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::migrate);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void migrate() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Notification.class);
+            if (indexOps.getIndexInfo().stream()
+                .anyMatch(info -> info.getName().equals(MongoIndexInitializer.UNIQUE_REMINDER_INDEX))) {
+                return;
+            }
+            
+            Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("reminderType").exists(true)),
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group("relatedId", "reminderType").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+            List<Object> extra = new ArrayList<>();
+            for (Document group : mongoTemplate.aggregate(duplicates, Notification.class, Document.class)) {
+                List<?> ids = group.getList("ids", Object.class);
+                extra.addAll(ids.subList(1, ids.size()));
+            }
+            if (!extra.isEmpty()) {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").in(extra)), Notification.class);
+                log.info("Removed {} duplicate reminders", extra.size());
+            }
+            indexInitializer.ensureUniqueReminderIndex();
+        } catch (Exception e) {
+            log.error("❌ Error removing duplicate reminders: {}", e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package fit.se.travelling_app_be.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import fit.se.travelling_app_be.dto.request.BookingRequest;
 import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.BookingListItem;
+import fit.se.travelling_app_be.dto.response.PageResponse;
 import fit.se.travelling_app_be.entity.Booking;
 import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.DestinationSnapshot;
+import fit.se.travelling_app_be.exception.IdempotencyConflictException;
+import fit.se.travelling_app_be.exception.IllegalTransitionException;
+import fit.se.travelling_app_be.exception.SoldOutException;
 import fit.se.travelling_app_be.service.BookingService;
 import fit.se.travelling_app_be.service.DestinationService;
+import fit.se.travelling_app_be.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +31,33 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class BookingController {
     
+    private static final TypeReference<ApiResponse<Booking>> BOOKING_RESPONSE = new TypeReference<>() {};
+    
     private final BookingService bookingService;
     private final DestinationService destinationService;
+    private final IdempotencyService idempotencyService;
     
+    // Retries carrying the same Idempotency-Key get the first response back instead of a second booking
     @PostMapping
-    public ResponseEntity<ApiResponse<Booking>> createBooking(@Valid @RequestBody BookingRequest request) {
+    public ResponseEntity<ApiResponse<Booking>> createBooking(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return create(request);
+        }
+        try {
+            return idempotencyService.execute(request.getUserId(), idempotencyKey, request, BOOKING_RESPONSE,
+                () -> create(request));
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    private ResponseEntity<ApiResponse<Booking>> create(BookingRequest request) {
         try {
             // Get destination
             Optional<Destination> destinationOpt = destinationService.findById(request.getDestinationId());
@@ -36,7 +69,7 @@ public class BookingController {
             // Create booking
             Booking booking = new Booking();
             booking.setUserId(request.getUserId()); // Get from request
-            booking.setDestination(destinationOpt.get());
+            booking.setDestination(DestinationSnapshot.of(destinationOpt.get()));
             booking.setTravelDate(request.getTravelDate());
             booking.setNumberOfTravelers(request.getNumberOfTravelers());
             booking.setTotalPrice(request.getTotalPrice());
@@ -48,6 +81,9 @@ public class BookingController {
             Booking savedBooking = bookingService.createBooking(booking);
             return ResponseEntity.ok(ApiResponse.success("Booking created successfully", savedBooking));
             
+        } catch (SoldOutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to create booking: " + e.getMessage()));
@@ -60,6 +96,25 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success(bookings));
     }
     
+    // status may repeat (?status=PENDING&status=CONFIRMED); from is inclusive, to exclusive
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ApiResponse<PageResponse<BookingListItem>>> getUserBookingPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            PageResponse<BookingListItem> page = bookingService.getBookingPage(userId, status, from, to, sort,
+                cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/user/{userId}/upcoming")
     public ResponseEntity<ApiResponse<List<Booking>>> getUpcomingBookings(@PathVariable String userId) {
         List<Booking> bookings = bookingService.getUpcomingBookings(userId);
@@ -90,6 +145,9 @@ public class BookingController {
         try {
             Booking updatedBooking = bookingService.updateBookingStatus(id, status);
             return ResponseEntity.ok(ApiResponse.success("Booking status updated", updatedBooking));
+        } catch (IllegalTransitionException | SoldOutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage()));
@@ -103,6 +161,9 @@ public class BookingController {
         try {
             Booking updatedBooking = bookingService.updatePaymentStatus(id, paymentStatus);
             return ResponseEntity.ok(ApiResponse.success("Payment status updated", updatedBooking));
+        } catch (IllegalTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage()));
@@ -114,6 +175,9 @@ public class BookingController {
         try {
             bookingService.cancelBooking(id);
             return ResponseEntity.ok(ApiResponse.success("Booking cancelled successfully", null));
+        } catch (IllegalTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage()));
@@ -0,0 +1,24 @@
+package fit.se.travelling_app_be.controller;
+
+import fit.se.travelling_app_be.cache.TwoTierCacheManager;
+import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CacheController {
+    
+    private final TwoTierCacheManager cacheManager;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<List<CacheStats>>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(cacheManager.stats()));
+    }
+}
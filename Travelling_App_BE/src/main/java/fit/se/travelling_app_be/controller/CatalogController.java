@@ -0,0 +1,36 @@
+package fit.se.travelling_app_be.controller;
+
+import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.ImportReport;
+import fit.se.travelling_app_be.service.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin/catalog")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CatalogController {
+    
+    private final CatalogImportService catalogImportService;
+    
+    // Accepts a JSON array or NDJSON file, optionally gzipped (*.gz)
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<ImportReport>> importCatalog(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            ImportReport report = catalogImportService.importCatalog(input, file.getOriginalFilename());
+            return ResponseEntity.ok(ApiResponse.success("Catalog imported", report));
+        }
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCatalog(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+}
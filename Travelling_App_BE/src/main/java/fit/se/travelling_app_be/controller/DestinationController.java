@@ -1,8 +1,25 @@
 package fit.se.travelling_app_be.controller;
 
+import fit.se.travelling_app_be.cache.CachedResponse;
+import fit.se.travelling_app_be.cache.CatalogResponseCache;
+import fit.se.travelling_app_be.dto.request.DestinationFilter;
+import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import fit.se.travelling_app_be.dto.response.DestinationDetail;
+import fit.se.travelling_app_be.dto.response.FacetedSearchResult;
+import fit.se.travelling_app_be.dto.response.NearbyDestination;
+import fit.se.travelling_app_be.dto.response.PageResponse;
+import fit.se.travelling_app_be.dto.response.Suggestion;
 import fit.se.travelling_app_be.entity.Destination;
 import fit.se.travelling_app_be.repository.DestinationRepository;
+import fit.se.travelling_app_be.search.DestinationSuggester;
+import fit.se.travelling_app_be.service.DestinationDetailService;
+import fit.se.travelling_app_be.service.DestinationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +32,10 @@ import java.util.List;
 public class DestinationController {
     
     private final DestinationRepository destinationRepository;
+    private final DestinationService destinationService;
+    private final DestinationSuggester destinationSuggester;
+    private final CatalogResponseCache catalogResponseCache;
+    private final DestinationDetailService destinationDetailService;
     
     @GetMapping
     public ResponseEntity<List<Destination>> getAllDestinations() {
@@ -22,40 +43,164 @@ public class DestinationController {
         return ResponseEntity.ok(destinations);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<DestinationCard>> getDestinationPage(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.getDestinationCards(sort, cursor, limit));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Destination> getDestinationById(@PathVariable String id) {
-        return destinationRepository.findById(id)
+        return destinationService.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
     
+    // Destination, reviews and the user's favorite/review state in one round trip
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<ApiResponse<DestinationDetail>> getDestinationDetail(
+            @PathVariable String id,
+            @RequestParam(required = false) String userId) {
+        DestinationDetail detail = destinationDetailService.getDetail(id, userId);
+        if (detail.getDestination() == null) {
+            if (detail.getFailedSections().contains(DestinationDetailService.DESTINATION)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Destination is temporarily unavailable"));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Destination not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(detail));
+    }
+    
+    // Served from pre-rendered bytes; Spring answers 304 when If-None-Match / If-Modified-Since match
     @GetMapping("/featured")
-    public ResponseEntity<List<Destination>> getFeaturedDestinations() {
-        List<Destination> destinations = destinationRepository.findByFeaturedTrue();
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<byte[]> getFeaturedDestinations(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedResponse response = catalogResponseCache.get("featured", destinationService::getFeaturedDestinations);
+        return cachedJson(response, acceptEncoding);
+    }
+    
+    @GetMapping("/featured/page")
+    public ResponseEntity<PageResponse<DestinationCard>> getFeaturedDestinationPage(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.getFeaturedDestinationCards(sort, cursor, limit));
     }
     
     @GetMapping("/popular")
-    public ResponseEntity<List<Destination>> getPopularDestinations() {
-        List<Destination> destinations = destinationRepository.findByPopularTrue();
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<byte[]> getPopularDestinations(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedResponse response = catalogResponseCache.get("popular", destinationService::getPopularDestinations);
+        return cachedJson(response, acceptEncoding);
+    }
+    
+    @GetMapping("/popular/page")
+    public ResponseEntity<PageResponse<DestinationCard>> getPopularDestinationPage(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.getPopularDestinationCards(sort, cursor, limit));
     }
     
     @GetMapping("/search")
     public ResponseEntity<List<Destination>> searchDestinations(@RequestParam String query) {
-        List<Destination> destinations = destinationRepository.findByNameContainingIgnoreCase(query);
+        List<Destination> destinations = destinationService.searchDestinations(query);
         return ResponseEntity.ok(destinations);
     }
     
+    // Typeahead for the search box, answered from memory
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggestDestinations(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationSuggester.suggest(prefix, limit));
+    }
+    
+    @GetMapping("/search/page")
+    public ResponseEntity<PageResponse<DestinationCard>> searchDestinationPage(
+            @RequestParam String query,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.searchDestinationCards(query, sort, cursor, limit));
+    }
+    
+    // Any combination of category, country, price, rating and duration filters with facet counts
+    @GetMapping("/filter")
+    public ResponseEntity<FacetedSearchResult> filterDestinations(DestinationFilter filter) {
+        return ResponseEntity.ok(destinationService.filterDestinations(filter));
+    }
+    
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyDestination>> getNearbyDestinations(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "50") double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.findNearby(lat, lon, radiusKm, limit));
+    }
+    
+    @GetMapping("/within")
+    public ResponseEntity<List<NearbyDestination>> getDestinationsWithin(
+            @RequestParam String bbox,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.findWithin(bbox, limit));
+    }
+    
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Destination>> getDestinationsByCategory(@PathVariable String category) {
-        List<Destination> destinations = destinationRepository.findByCategory(category);
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<byte[]> getDestinationsByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedResponse response = catalogResponseCache.get("category:" + category,
+            () -> destinationService.getDestinationsByCategory(category));
+        return cachedJson(response, acceptEncoding);
+    }
+    
+    @GetMapping("/category/{category}/page")
+    public ResponseEntity<PageResponse<DestinationCard>> getDestinationPageByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(destinationService.getDestinationCardsByCategory(category, sort, cursor, limit));
     }
     
     @PostMapping
     public ResponseEntity<Destination> createDestination(@RequestBody Destination destination) {
-        Destination savedDestination = destinationRepository.save(destination);
+        Destination savedDestination = destinationService.createDestination(destination);
         return ResponseEntity.ok(savedDestination);
     }
+    
+    // Each content coding gets its own strong ETag (RFC 9110), so a cache keyed on Vary
+    // cannot revalidate one encoding against the other's validator
+    private ResponseEntity<byte[]> cachedJson(CachedResponse response, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(gzip ? gzipEtag(response.getEtag()) : response.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (response.getLastModified() > 0) {
+            builder.lastModified(response.getLastModified());
+        }
+        
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzippedBody());
+        }
+        return builder.body(response.getBody());
+    }
+    
+    // "12-ab34" -> "12-ab34-gz"
+    private static String gzipEtag(String etag) {
+        return etag.endsWith("\"") ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag + "-gz";
+    }
+    
+    // Malformed cursor or unsupported sort key
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadPageRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
 }
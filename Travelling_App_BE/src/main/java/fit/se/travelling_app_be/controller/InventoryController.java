@@ -0,0 +1,41 @@
+package fit.se.travelling_app_be.controller;
+
+import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.entity.DepartureInventory;
+import fit.se.travelling_app_be.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/departures")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class InventoryController {
+    
+    private final InventoryService inventoryService;
+    
+    @GetMapping("/{destinationId}/{date}")
+    public ResponseEntity<ApiResponse<DepartureInventory>> getAvailability(
+            @PathVariable String destinationId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(ApiResponse.success(inventoryService.getAvailability(destinationId, date)));
+    }
+    
+    @PutMapping("/{destinationId}/{date}/capacity")
+    public ResponseEntity<ApiResponse<DepartureInventory>> setCapacity(
+            @PathVariable String destinationId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam int capacity) {
+        try {
+            DepartureInventory inventory = inventoryService.setCapacity(destinationId, date, capacity);
+            return ResponseEntity.ok(ApiResponse.success("Departure capacity updated", inventory));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
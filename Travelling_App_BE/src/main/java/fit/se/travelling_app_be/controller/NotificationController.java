@@ -1,10 +1,14 @@
 package fit.se.travelling_app_be.controller;
 
 import fit.se.travelling_app_be.model.Notification;
+import fit.se.travelling_app_be.notification.NotificationHub;
 import fit.se.travelling_app_be.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -14,6 +18,7 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class NotificationController {
     private final NotificationService notificationService;
+    private final NotificationHub notificationHub;
     
     @GetMapping("/{userId}")
     public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable String userId) {
@@ -41,5 +46,12 @@ public class NotificationController {
     public ResponseEntity<Long> getUnreadCount(@PathVariable String userId) {
         return ResponseEntity.ok(notificationService.getUnreadCount(userId));
     }
+    
+    // Pushes "notification" and "unread-count" events instead of polling the two endpoints above;
+    // EventSource reconnects send Last-Event-ID and get what they missed
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> stream(@PathVariable String userId,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationHub.subscribe(userId, lastEventId);
+    }
 }
-
@@ -1,5 +1,7 @@
 package fit.se.travelling_app_be.controller;
 
+import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.ReminderRunReport;
 import fit.se.travelling_app_be.service.NotificationSchedulerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +16,9 @@ public class NotificationSchedulerController {
     private final NotificationSchedulerService schedulerService;
     
     @PostMapping("/check-upcoming")
-    public ResponseEntity<String> checkUpcomingTours() {
-        schedulerService.checkUpcomingToursManually();
-        return ResponseEntity.ok("Checked upcoming tours and sent notifications");
+    public ResponseEntity<ApiResponse<ReminderRunReport>> checkUpcomingTours() {
+        ReminderRunReport report = schedulerService.checkUpcomingToursManually();
+        return ResponseEntity.ok(ApiResponse.success("Checked upcoming tours and scheduled reminders", report));
     }
 }
 
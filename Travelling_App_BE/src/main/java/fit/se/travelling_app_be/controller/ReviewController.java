@@ -2,9 +2,12 @@ package fit.se.travelling_app_be.controller;
 
 import fit.se.travelling_app_be.dto.request.ReviewRequest;
 import fit.se.travelling_app_be.dto.response.ApiResponse;
+import fit.se.travelling_app_be.dto.response.PageResponse;
+import fit.se.travelling_app_be.dto.response.ReviewSummary;
 import fit.se.travelling_app_be.entity.Review;
 import fit.se.travelling_app_be.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -44,6 +47,29 @@ public class ReviewController {
         return ResponseEntity.ok(ApiResponse.success(reviews));
     }
     
+    @GetMapping("/destination/{destinationId}/page")
+    public ResponseEntity<ApiResponse<PageResponse<Review>>> getReviewPage(
+            @PathVariable String destinationId,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            PageResponse<Review> page = reviewService.getReviewFeed(destinationId, minRating, cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/destination/{destinationId}/summary")
+    public ResponseEntity<ApiResponse<ReviewSummary>> getReviewSummary(@PathVariable String destinationId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(reviewService.getReviewSummary(destinationId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<ApiResponse<List<Review>>> getUserReviews(@PathVariable String userId) {
         List<Review> reviews = reviewService.getReviewsByUserId(userId);
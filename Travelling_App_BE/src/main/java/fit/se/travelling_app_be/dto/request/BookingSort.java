@@ -0,0 +1,28 @@
+package fit.se.travelling_app_be.dto.request;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+// Sort orders of the paginated booking list; both walk the (userId, [status,] travelDate, _id) indexes
+@Getter
+@RequiredArgsConstructor
+public enum BookingSort {
+    TRAVEL_DATE(Sort.Direction.ASC),
+    TRAVEL_DATE_DESC(Sort.Direction.DESC);
+    
+    public static final String FIELD = "travelDate";
+    
+    private final Sort.Direction direction;
+    
+    public static BookingSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return TRAVEL_DATE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package fit.se.travelling_app_be.dto.request;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Any combination of these may be supplied; null means "no constraint"
+@Data
+public class DestinationFilter {
+    private String category;
+    private String country;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Double minRating;
+    private Integer minDays;
+    private Integer maxDays;
+    private Integer limit;
+}
@@ -0,0 +1,36 @@
+package fit.se.travelling_app_be.dto.request;
+
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.function.Function;
+
+// Sort keys supported by the keyset-paginated destination listings
+@Getter
+@RequiredArgsConstructor
+public enum DestinationSort {
+    NAME("name", Sort.Direction.ASC, DestinationCard::getName),
+    RATING("rating", Sort.Direction.DESC, DestinationCard::getRating),
+    POPULARITY("reviewCount", Sort.Direction.DESC, DestinationCard::getReviewCount);
+    
+    private final String field;
+    private final Sort.Direction direction;
+    private final Function<DestinationCard, Object> valueExtractor;
+    
+    public Object keyOf(DestinationCard card) {
+        return valueExtractor.apply(card);
+    }
+    
+    public static DestinationSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NAME;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package fit.se.travelling_app_be.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.bson.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last item of a page: the value of the sort key plus the document id
+ * as tie-breaker. Sent to clients as an opaque URL-safe token.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+    private String sortKey;
+    private Object value;
+    private String id;
+    
+    public String encode() {
+        Document document = new Document("s", sortKey).append("v", value).append("id", id);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static PageCursor decode(String token, String expectedSortKey) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Document document = Document.parse(json);
+            PageCursor cursor = new PageCursor(document.getString("s"), document.get("v"), document.getString("id"));
+            if (cursor.getId() == null || !expectedSortKey.equals(cursor.getSortKey())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package fit.se.travelling_app_be.dto.response;
+
+import fit.se.travelling_app_be.entity.DestinationSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Slim projection of Booking used by the booking list screens
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingListItem {
+    @Id
+    private String id;
+    
+    private DestinationSnapshot destination;
+    private String status;
+    private String paymentStatus;
+    private LocalDateTime travelDate;
+    private Integer numberOfTravelers;
+    private BigDecimal totalPrice;
+}
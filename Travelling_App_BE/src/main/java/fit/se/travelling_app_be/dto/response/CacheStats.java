@@ -0,0 +1,18 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private long localHits;
+    private long remoteHits;
+    private long misses;
+    private long evictions;
+    private long localSize;
+    private double hitRatio;
+}
@@ -0,0 +1,25 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+
+// Slim projection of Destination used by list screens (home, category, search)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationCard {
+    @Id
+    private String id;
+    
+    private String name;
+    private String country;
+    private String imageUrl;
+    private Double rating;
+    private Integer reviewCount;
+    private BigDecimal price;
+    private String category;
+}
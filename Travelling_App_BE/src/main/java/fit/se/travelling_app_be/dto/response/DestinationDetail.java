@@ -0,0 +1,25 @@
+package fit.se.travelling_app_be.dto.response;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.Review;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Everything the destination page needs in one response; sections that failed or timed out are null
+@Data
+@NoArgsConstructor
+public class DestinationDetail {
+    private Destination destination;
+    private PageResponse<Review> reviews; // first page of the review feed
+    private Boolean favorite; // null without userId
+    private Review userReview;
+    private List<String> failedSections = new ArrayList<>();
+    private long tookMillis;
+    
+    public boolean isPartial() {
+        return !failedSections.isEmpty();
+    }
+}
@@ -0,0 +1,21 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResult {
+    private int total;
+    private List<DestinationCard> items;
+    
+    // facet name (category, country) -> value -> number of matches if that value were selected
+    private Map<String, Map<String, Integer>> facets;
+    
+    private long tookMicros;
+}
@@ -0,0 +1,22 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private String source;
+    private long read;
+    private long inserted;
+    private long updated;
+    private long duplicates; // repeated (name, country) within a batch, last one wins
+    private long invalid;
+    private int batches;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    private List<String> errors = new ArrayList<>(); // first few validation errors only
+}
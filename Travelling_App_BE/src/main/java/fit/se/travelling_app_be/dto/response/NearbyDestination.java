@@ -0,0 +1,15 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyDestination {
+    private DestinationCard destination;
+    private Double latitude;
+    private Double longitude;
+    private double distanceKm;
+}
@@ -0,0 +1,20 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private String nextCursor; // null when there is no next page
+    private boolean hasMore;
+    
+    public static <T> PageResponse<T> of(List<T> items, String nextCursor) {
+        return new PageResponse<>(items, nextCursor, nextCursor != null);
+    }
+}
@@ -0,0 +1,13 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ReminderRunReport {
+    private long scanned; // active bookings departing within the reminder horizon
+    private long scheduled; // reminders that were missing or had moved
+    private long failed;
+    private long elapsedMillis;
+}
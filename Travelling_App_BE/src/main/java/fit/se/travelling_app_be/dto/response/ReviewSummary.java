@@ -0,0 +1,17 @@
+package fit.se.travelling_app_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummary {
+    private String destinationId;
+    private double averageRating;
+    private long reviewCount;
+    private Map<Integer, Long> starCounts; // 1..5, always all five keys
+}
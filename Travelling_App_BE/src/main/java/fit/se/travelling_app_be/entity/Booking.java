@@ -1,5 +1,6 @@
 package fit.se.travelling_app_be.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,7 +9,6 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,8 +26,11 @@ public class Booking {
     @Indexed
     private String userId;
     
-    @DBRef
-    private Destination destination;
+    // Older documents may still hold a DBRef here until BookingSnapshotMigration rewrites them
+    private DestinationSnapshot destination;
+    
+    @JsonIgnore
+    private Integer shard; // hash bucket of userId that partitioned jobs split on, see Partitioning
     
     private String status; // PENDING, CONFIRMED, CANCELLED, COMPLETED
     private LocalDateTime bookingDate;
@@ -40,11 +43,28 @@ public class Booking {
     private ContactInfo contactInfo;
     private List<String> specialRequests = new ArrayList<>();
     
+    // Undelivered domain events, written in the same document write as the booking change
+    @JsonIgnore
+    private List<OutboxEvent> outbox = new ArrayList<>();
+    
+    @JsonIgnore
+    private LocalDateTime outboxDueAt; // nextAttemptAt of the first outbox event; absent when the outbox is empty
+    
+    @JsonIgnore
+    private LocalDateTime outboxLockedUntil; // lease of the dispatcher currently delivering this booking's events
+    
     @CreatedDate
     private LocalDateTime createdAt;
     
     @LastModifiedDate
     private LocalDateTime updatedAt;
+    
+    public void addOutboxEvent(OutboxEvent event) {
+        outbox.add(event);
+        if (outboxDueAt == null) {
+            outboxDueAt = event.getNextAttemptAt();
+        }
+    }
 }
 
 @Data
@@ -0,0 +1,29 @@
+package fit.se.travelling_app_be.entity;
+
+import java.util.List;
+
+// Booking lifecycle: PENDING -> CONFIRMED -> COMPLETED, and PENDING/CONFIRMED -> CANCELLED
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    COMPLETED,
+    CANCELLED;
+    
+    // Statuses a booking has to be in to move to this one
+    public List<String> sources() {
+        return switch (this) {
+            case PENDING -> List.of();
+            case CONFIRMED -> List.of(PENDING.name());
+            case COMPLETED -> List.of(CONFIRMED.name());
+            case CANCELLED -> List.of(PENDING.name(), CONFIRMED.name());
+        };
+    }
+    
+    public static BookingStatus fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Seats of one destination on one departure date; remaining only changes through conditional $inc
+@Document(collection = "departure_inventory")
+@Data
+@NoArgsConstructor
+public class DepartureInventory {
+    @Id
+    private String id;
+    
+    private String destinationId;
+    private LocalDate departureDate;
+    private int capacity;
+    private int remaining;
+    
+    private LocalDateTime updatedAt;
+}
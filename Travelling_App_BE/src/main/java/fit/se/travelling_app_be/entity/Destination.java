@@ -1,5 +1,6 @@
 package fit.se.travelling_app_be.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "destinations")
 @Data
@@ -39,6 +41,14 @@ public class Destination {
     
     private Double rating = 0.0;
     private Integer reviewCount = 0;
+    
+    // Running aggregates kept up to date with atomic increments; rating = ratingSum / reviewCount
+    private Long ratingSum;
+    private Map<String, Integer> ratingCounts; // stars ("1".."5") -> number of reviews
+    
+    // Ids of the last rating batches applied, so a replayed batch is not counted twice
+    @JsonIgnore
+    private List<String> appliedRatingBatches;
     private BigDecimal price;
     private String duration;
     
@@ -0,0 +1,29 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// The destination as it was when booked; embedded so booking reads never touch the destinations collection
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationSnapshot {
+    private String id;
+    private String name;
+    private String imageUrl;
+    private String country;
+    private BigDecimal price;
+    private String duration;
+    
+    public static DestinationSnapshot of(Destination destination) {
+        String imageUrl = destination.getImageUrl();
+        if (imageUrl == null && destination.getImages() != null && !destination.getImages().isEmpty()) {
+            imageUrl = destination.getImages().get(0);
+        }
+        return new DestinationSnapshot(destination.getId(), destination.getName(), imageUrl,
+            destination.getCountry(), destination.getPrice(), destination.getDuration());
+    }
+}
@@ -0,0 +1,25 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// First response to an Idempotency-Key; removed by the TTL index on expiresAt
+@Document(collection = "idempotency_keys")
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    private String id; // scope + ":" + key
+    
+    private String fingerprint; // hash of the request body the key was first used with
+    private String status; // IN_PROGRESS, COMPLETED
+    private Integer httpStatus;
+    private String responseBody;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
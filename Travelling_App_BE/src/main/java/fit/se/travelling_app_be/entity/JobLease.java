@@ -0,0 +1,25 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Lease on one partition of a scheduled job; see PartitionLeaseManager
+@Document(collection = "job_leases")
+@Data
+@NoArgsConstructor
+public class JobLease {
+    @Id
+    private String id; // job + ":" + partition
+    
+    private String job;
+    private Integer partition;
+    private String owner; // node id
+    private Long token; // fencing token, incremented every time the lease changes hands
+    private LocalDateTime expiresAt;
+    private LocalDateTime renewedAt;
+    private LocalDateTime checkpointAt; // last successful fence() by the owner
+}
@@ -0,0 +1,21 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// A node taking part in a partitioned job; nodes that stop heartbeating drop out once expiresAt passes
+@Document(collection = "job_members")
+@Data
+@NoArgsConstructor
+public class JobMember {
+    @Id
+    private String id; // job + ":" + nodeId
+    
+    private String job;
+    private String nodeId;
+    private LocalDateTime expiresAt;
+}
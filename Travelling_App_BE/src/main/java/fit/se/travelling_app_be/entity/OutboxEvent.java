@@ -0,0 +1,37 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// A domain event kept in Booking.outbox until BookingOutboxDispatcher has delivered it
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_STATUS_CHANGED = "BOOKING_STATUS_CHANGED";
+    public static final String PAYMENT_STATUS_CHANGED = "PAYMENT_STATUS_CHANGED";
+    
+    private String eventId;
+    private String type;
+    private Map<String, Object> payload = new HashMap<>();
+    
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+    
+    public static OutboxEvent of(String type, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(new ObjectId().toHexString());
+        event.setType(type);
+        event.setPayload(new HashMap<>(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        event.setNextAttemptAt(event.getCreatedAt());
+        return event;
+    }
+}
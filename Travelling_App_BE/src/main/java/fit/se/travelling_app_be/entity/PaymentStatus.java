@@ -0,0 +1,29 @@
+package fit.se.travelling_app_be.entity;
+
+import java.util.List;
+
+// Payment lifecycle: PENDING -> PAID -> REFUNDED, PENDING <-> FAILED, FAILED -> PAID
+public enum PaymentStatus {
+    PENDING,
+    PAID,
+    FAILED,
+    REFUNDED;
+    
+    // Payment statuses a booking has to be in to move to this one
+    public List<String> sources() {
+        return switch (this) {
+            case PENDING -> List.of(FAILED.name());
+            case PAID -> List.of(PENDING.name(), FAILED.name());
+            case FAILED -> List.of(PENDING.name());
+            case REFUNDED -> List.of(PAID.name());
+        };
+    }
+    
+    public static PaymentStatus fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown payment status: " + value);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Pending copy of a user's display fields into their reviews; one document per user
+@Document(collection = "profile_propagation_jobs")
+@Data
+@NoArgsConstructor
+public class ProfilePropagationJob {
+    @Id
+    private String userId;
+    
+    private String fullName;
+    private String avatar;
+    
+    // Bumped on every profile change; a newer change restarts the scan from the first review
+    private long generation;
+    
+    // Last review id already updated in this generation
+    private String lastReviewId;
+    
+    private LocalDateTime updatedAt;
+}
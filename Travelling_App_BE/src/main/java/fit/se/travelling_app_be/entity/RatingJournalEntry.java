@@ -0,0 +1,28 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A rating delta that has been accepted but not yet applied to its destination
+@Document(collection = "rating_journal")
+@Data
+@NoArgsConstructor
+public class RatingJournalEntry {
+    @Id
+    private String id;
+    
+    private String destinationId;
+    
+    // Change in the number of reviews per star, index 0 = one star
+    private List<Integer> starCounts;
+    
+    // Set when a flush claims the entry; entries are deleted once their batch is applied
+    private String batchId;
+    
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// One pending pre-departure reminder; ReminderEngine keeps the next window of these in memory
+@Document(collection = "scheduled_reminders")
+@Data
+@NoArgsConstructor
+public class ScheduledReminder {
+    @Id
+    private String id; // bookingId + ":" + reminderType
+    
+    private String bookingId;
+    private String userId;
+    private Integer shard; // the booking's shard, see Partitioning
+    private String reminderType;
+    private LocalDateTime travelDate; // the travel date dueAt was computed from
+    private LocalDateTime dueAt;
+    
+    private String status; // PENDING, SENT, CANCELLED
+    private LocalDateTime finishedAt; // set once SENT or CANCELLED; the TTL index removes the document later
+    
+    public static String idOf(String bookingId, String reminderType) {
+        return bookingId + ":" + reminderType;
+    }
+}
@@ -0,0 +1,28 @@
+package fit.se.travelling_app_be.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Seats taken from a departure. HELD seats return to inventory at expiresAt unless the booking confirms them.
+@Document(collection = "seat_holds")
+@Data
+@NoArgsConstructor
+public class SeatHold {
+    @Id
+    private String id;
+    
+    private String destinationId;
+    private LocalDate departureDate;
+    private int seats;
+    private String userId;
+    private String bookingId;
+    
+    private String status; // HELD, CONFIRMED, RELEASED, EXPIRED
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package fit.se.travelling_app_be.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a bulk catalog import. Too many destinations change at once to refresh
+ * entries one by one, so listeners rebuild their indexes and drop cached lists instead.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogReloadedEvent {
+    private final long upserted;
+}
@@ -0,0 +1,20 @@
+package fit.se.travelling_app_be.event;
+
+import fit.se.travelling_app_be.entity.Destination;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a destination is created, updated (including rating changes) or deleted,
+ * so in-memory indexes and caches can refresh the single affected entry.
+ */
+@Getter
+@AllArgsConstructor
+public class DestinationChangedEvent {
+    private final String destinationId;
+    private final Destination destination; // null when the destination was deleted
+    
+    public boolean isDeleted() {
+        return destination == null;
+    }
+}
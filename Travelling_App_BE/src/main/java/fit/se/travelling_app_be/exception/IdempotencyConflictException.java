@@ -0,0 +1,9 @@
+package fit.se.travelling_app_be.exception;
+
+// Idempotency-Key reused with a different request, or its first request is still running elsewhere
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package fit.se.travelling_app_be.exception;
+
+// The booking is not in a state the requested status change can start from
+public class IllegalTransitionException extends RuntimeException {
+    
+    public IllegalTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package fit.se.travelling_app_be.exception;
+
+// Not enough seats left on the requested departure
+public class SoldOutException extends RuntimeException {
+    
+    public SoldOutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package fit.se.travelling_app_be.notification;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import fit.se.travelling_app_be.model.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * With several nodes a notification is usually written on another node than the one holding
+ * its user's stream. When enabled (needs a replica set), every node follows the notifications
+ * change stream and hands inserts and read-state updates to its NotificationHub, which then
+ * ignores local publish() calls.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.stream.change-stream", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationChangeStream {
+    
+    private static final long RETRY_DELAY_MILLIS = 5000;
+    
+    private final MongoTemplate mongoTemplate;
+    private final NotificationHub notificationHub;
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::follow);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void follow() {
+        BsonDocument resumeToken = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Notification.class))
+                    .watch(List.of(Aggregates.match(Filters.in("operationType", "insert", "update", "replace"))))
+                    .fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                    while (cursor.hasNext()) {
+                        ChangeStreamDocument<Document> change = cursor.next();
+                        resumeToken = change.getResumeToken();
+                        relay(change);
+                    }
+                }
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                log.error("❌ Error following notification changes, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void relay(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return; // updated and deleted before the lookup
+        }
+        Notification notification = mongoTemplate.getConverter().read(Notification.class, document);
+        if (change.getOperationType() == OperationType.INSERT) {
+            notificationHub.deliver(notification);
+        } else {
+            notificationHub.unreadCountChanged(notification.getUserId());
+        }
+    }
+}
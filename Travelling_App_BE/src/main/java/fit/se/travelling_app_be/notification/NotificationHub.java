@@ -0,0 +1,206 @@
+package fit.se.travelling_app_be.notification;
+
+import fit.se.travelling_app_be.model.Notification;
+import fit.se.travelling_app_be.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans new notifications and unread-count changes out to the SSE connections of their user.
+ * Every connection has its own bounded buffer and the response is written one event at a time,
+ * so a client that stops reading fills only its own buffer; when it overflows the stream is
+ * closed and the client resumes from Mongo with Last-Event-ID. Idle connections cost a buffer
+ * and a map entry: one scheduled heartbeat walks all of them, and unread counts are recomputed
+ * at most once per flush, only for users whose notifications changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationHub {
+    
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    
+    private static final ServerSentEvent<Object> HEARTBEAT = ServerSentEvent.builder().comment("heartbeat").build();
+    // Events the writer may take from a connection's buffer ahead of the socket
+    private static final int WRITE_PREFETCH = 4;
+    
+    private final NotificationRepository notificationRepository;
+    private final MongoTemplate mongoTemplate;
+    
+    private final ConcurrentHashMap<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final Set<String> countChanged = ConcurrentHashMap.newKeySet();
+    
+    @Value("${app.notifications.stream.buffer-size:64}")
+    private int bufferSize;
+    
+    @Value("${app.notifications.stream.resume-limit:100}")
+    private int resumeLimit;
+    
+    @Value("${app.notifications.stream.max-lifetime:PT30M}")
+    private Duration maxLifetime;
+    
+    @Value("${app.notifications.stream.change-stream:false}")
+    private boolean changeStream;
+    
+    /**
+     * Notifications created after lastEventId (the createdAt of the last one the client saw, in
+     * epoch millis), then the unread count, then live events. Replay is inclusive of that
+     * millisecond, so a notification may arrive twice across a reconnect but is never skipped;
+     * clients dedupe on the notification id.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(String userId, String lastEventId) {
+        // Registered before the backlog is read, so nothing written in between is missed
+        Connection connection = new Connection(userId);
+        connections.compute(userId, (id, current) -> {
+            Set<Connection> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            set.add(connection);
+            return set;
+        });
+        
+        Set<String> replayed = ConcurrentHashMap.newKeySet();
+        Flux<ServerSentEvent<Object>> head = Mono.fromCallable(() -> backlog(userId, lastEventId, replayed))
+            .flatMapIterable(events -> events)
+            .concatWith(Mono.fromCallable(() -> unreadCount(userId)))
+            .subscribeOn(Schedulers.boundedElastic());
+        Flux<ServerSentEvent<Object>> live = connection.sink.asFlux()
+            .filter(event -> !(event.data() instanceof Notification notification && replayed.contains(notification.getId())));
+        
+        return Flux.concat(head, live)
+            .publishOn(Schedulers.boundedElastic(), WRITE_PREFETCH)
+            .take(maxLifetime)
+            .doFinally(signal -> remove(connection));
+    }
+    
+    // Called for every notification written; with the change stream enabled that relays them instead
+    public void publish(Notification notification) {
+        if (!changeStream) {
+            deliver(notification);
+        }
+    }
+    
+    void deliver(Notification notification) {
+        Set<Connection> targets = connections.get(notification.getUserId());
+        if (targets == null) {
+            return;
+        }
+        ServerSentEvent<Object> event = toEvent(notification);
+        targets.forEach(connection -> connection.emit(event));
+        countChanged.add(notification.getUserId());
+    }
+    
+    public void unreadCountChanged(String userId) {
+        if (userId != null && connections.containsKey(userId)) {
+            countChanged.add(userId);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notifications.stream.count-flush-interval:PT1S}")
+    public void flushCounts() {
+        for (Iterator<String> iterator = countChanged.iterator(); iterator.hasNext(); ) {
+            String userId = iterator.next();
+            iterator.remove();
+            Set<Connection> targets = connections.get(userId);
+            if (targets == null) {
+                continue;
+            }
+            try {
+                ServerSentEvent<Object> event = unreadCount(userId);
+                targets.forEach(connection -> connection.emit(event));
+            } catch (Exception e) {
+                log.error("❌ Error pushing unread count to user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+    
+    // Keeps proxies from closing idle streams and surfaces clients that went away
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        connections.values().forEach(targets -> targets.forEach(connection -> connection.emit(HEARTBEAT)));
+    }
+    
+    public int getConnectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+    
+    private List<ServerSentEvent<Object>> backlog(String userId, String lastEventId, Set<String> replayed) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long lastSeen;
+        try {
+            lastSeen = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault());
+        Query query = Query.query(Criteria.where("userId").is(userId).and("createdAt").gte(since))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+            .limit(resumeLimit);
+        return mongoTemplate.find(query, Notification.class).stream()
+            .peek(notification -> replayed.add(notification.getId()))
+            .map(NotificationHub::toEvent)
+            .toList();
+    }
+    
+    private ServerSentEvent<Object> unreadCount(String userId) {
+        long count = notificationRepository.countByUserIdAndRead(userId, false);
+        return ServerSentEvent.builder((Object) count).event(UNREAD_COUNT_EVENT).build();
+    }
+    
+    private static ServerSentEvent<Object> toEvent(Notification notification) {
+        ServerSentEvent.Builder<Object> builder = ServerSentEvent.builder((Object) notification).event(NOTIFICATION_EVENT);
+        if (notification.getCreatedAt() != null) {
+            builder.id(String.valueOf(notification.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        }
+        return builder.build();
+    }
+    
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
+    private final class Connection {
+        private final String userId;
+        private final Sinks.Many<ServerSentEvent<Object>> sink;
+        
+        private Connection(String userId) {
+            this.userId = userId;
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize).get());
+        }
+        
+        // Publishers emit from many threads; the sink itself only accepts one emitter at a time
+        private synchronized void emit(ServerSentEvent<Object> event) {
+            if (sink.tryEmitNext(event) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                log.debug("Closing notification stream of user {}: client is not reading", userId);
+                sink.tryEmitComplete();
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package fit.se.travelling_app_be.outbox;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+
+/**
+ * Consumer of booking outbox events. Delivery is at-least-once, so handle() must tolerate
+ * seeing the same event (same eventId) again; throwing schedules a retry of the event and
+ * holds back the later events of the same booking.
+ */
+public interface BookingEventHandler {
+    
+    boolean supports(String eventType);
+    
+    void handle(OutboxEvent event, Booking booking);
+}
@@ -0,0 +1,38 @@
+package fit.se.travelling_app_be.outbox;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Notifies the user about their booking; the event id doubles as the notification id so redeliveries are no-ops
+@Component
+@RequiredArgsConstructor
+public class BookingNotificationHandler implements BookingEventHandler {
+    
+    private final NotificationService notificationService;
+    
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxEvent.BOOKING_CREATED.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxEvent event, Booking booking) {
+        String destinationName = "Unknown Destination";
+        if (booking.getDestination() != null && booking.getDestination().getName() != null) {
+            destinationName = booking.getDestination().getName();
+        }
+        
+        String status = "CONFIRMED".equals(event.getPayload().get("status")) ? "đã xác nhận" : "đang chờ xử lý";
+        notificationService.createNotificationOnce(
+            event.getEventId(),
+            booking.getUserId(),
+            "Đặt chỗ thành công!",
+            "Chuyến đi đến " + destinationName + " của bạn " + status + ".",
+            "booking",
+            booking.getId()
+        );
+    }
+}
@@ -0,0 +1,216 @@
+package fit.se.travelling_app_be.outbox;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the events queued in Booking.outbox to every BookingEventHandler. Bookings with a due
+ * outbox are fetched in batches by outboxDueAt and leased one at a time, so only one node works on
+ * a booking and its events go out in order. Delivered events are pulled from the document; a failed
+ * event is retried with exponential backoff and the events behind it wait. Lag (age of the oldest
+ * undelivered event) is published as the booking.outbox.lag gauge.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingOutboxDispatcher {
+    
+    private final MongoTemplate mongoTemplate;
+    private final List<BookingEventHandler> handlers;
+    private final MeterRegistry meterRegistry;
+    
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private Counter delivered;
+    private Counter failed;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.lease:PT30S}")
+    private Duration lease;
+    
+    @Value("${app.outbox.retry-initial-delay:PT1S}")
+    private Duration retryInitialDelay;
+    
+    @Value("${app.outbox.retry-max-delay:PT10M}")
+    private Duration retryMaxDelay;
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("booking.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+            .description("Age of the oldest undelivered booking event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        delivered = Counter.builder("booking.outbox.delivered").register(meterRegistry);
+        failed = Counter.builder("booking.outbox.failed").register(meterRegistry);
+    }
+    
+    // Called after a booking with new events is saved, so delivery does not wait for the next poll
+    public void wakeUp() {
+        if (wakeUpRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpRequested.set(false);
+                drain();
+            });
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void drain() {
+        if (!drainLock.tryLock()) {
+            return; // the scheduler and a wake-up raced; one drain is enough
+        }
+        try {
+            List<Booking> due;
+            do {
+                due = findDue();
+                for (Booking booking : due) {
+                    if (claim(booking.getId())) {
+                        dispatch(booking);
+                    }
+                }
+            } while (due.size() == batchSize);
+            updateLag();
+        } catch (Exception e) {
+            log.error("❌ Error draining booking outbox: {}", e.getMessage());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private List<Booking> findDue() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("outboxDueAt").lte(now),
+                notLeased(now)))
+            .with(Sort.by("outboxDueAt"))
+            .limit(batchSize);
+        return mongoTemplate.find(query, Booking.class);
+    }
+    
+    private boolean claim(String bookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("id").is(bookingId), notLeased(now)));
+        return mongoTemplate.updateFirst(query, Update.update("outboxLockedUntil", now.plus(lease)), Booking.class)
+            .getModifiedCount() > 0;
+    }
+    
+    private void dispatch(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> deliveredIds = new ArrayList<>();
+        Query byId = Query.query(Criteria.where("id").is(booking.getId()));
+        try {
+            for (OutboxEvent event : booking.getOutbox()) {
+                if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                    break; // still backing off; later events of this booking wait behind it
+                }
+                try {
+                    deliver(event, booking);
+                    deliveredIds.add(event.getEventId());
+                } catch (Exception e) {
+                    scheduleRetry(booking.getId(), event, e);
+                    break;
+                }
+            }
+            if (!deliveredIds.isEmpty()) {
+                mongoTemplate.updateFirst(byId,
+                    new Update().pull("outbox", new Document("eventId", new Document("$in", deliveredIds))),
+                    Booking.class);
+                delivered.increment(deliveredIds.size());
+            }
+        } finally {
+            // Next due time comes from whatever is left at the head, including events appended meanwhile
+            AggregationUpdate release = AggregationUpdate.from(List.of(context -> new Document("$set", new Document()
+                .append("outboxDueAt", new Document("$arrayElemAt", List.of("$outbox.nextAttemptAt", 0)))
+                .append("outboxLockedUntil", "$$REMOVE"))));
+            mongoTemplate.updateFirst(byId, release, Booking.class);
+        }
+    }
+    
+    private void deliver(OutboxEvent event, Booking booking) {
+        for (BookingEventHandler handler : handlers) {
+            if (handler.supports(event.getType())) {
+                handler.handle(event, booking);
+            }
+        }
+    }
+    
+    private void scheduleRetry(String bookingId, OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        long delayMillis = Math.min(retryMaxDelay.toMillis(),
+            retryInitialDelay.toMillis() << Math.min(attempts - 1, 20));
+        delayMillis += ThreadLocalRandom.current().nextLong(delayMillis / 5 + 1); // spread retries of a failed burst
+        
+        failed.increment();
+        log.warn("Booking event {} ({}) for booking {} failed on attempt {}, retrying in {} ms: {}",
+            event.getEventId(), event.getType(), bookingId, attempts, delayMillis, error.getMessage());
+        
+        Query query = Query.query(Criteria.where("id").is(bookingId).and("outbox.eventId").is(event.getEventId()));
+        Update update = new Update()
+            .set("outbox.$.attempts", attempts)
+            .set("outbox.$.lastError", String.valueOf(error.getMessage()))
+            .set("outbox.$.nextAttemptAt", LocalDateTime.now().plusNanos(delayMillis * 1_000_000));
+        mongoTemplate.updateFirst(query, update, Booking.class);
+    }
+    
+    private void updateLag() {
+        Query oldest = Query.query(Criteria.where("outboxDueAt").exists(true))
+            .with(Sort.by("outboxDueAt"))
+            .limit(1);
+        oldest.fields().include("outbox");
+        Booking booking = mongoTemplate.findOne(oldest, Booking.class);
+        if (booking == null || booking.getOutbox().isEmpty()) {
+            lagMillis.set(0);
+            return;
+        }
+        LocalDateTime createdAt = booking.getOutbox().get(0).getCreatedAt();
+        lagMillis.set(Math.max(0, Duration.between(createdAt, LocalDateTime.now()).toMillis()));
+    }
+    
+    private static Criteria notLeased(LocalDateTime now) {
+        return new Criteria().orOperator(
+            Criteria.where("outboxLockedUntil").exists(false),
+            Criteria.where("outboxLockedUntil").lt(now));
+    }
+}
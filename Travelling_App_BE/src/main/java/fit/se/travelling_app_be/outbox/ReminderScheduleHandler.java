@@ -0,0 +1,33 @@
+package fit.se.travelling_app_be.outbox;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.reminder.ReminderEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Schedules pre-departure reminders for new bookings and drops them when a booking ends early
+@Component
+@RequiredArgsConstructor
+public class ReminderScheduleHandler implements BookingEventHandler {
+    
+    private final ReminderEngine reminderEngine;
+    
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxEvent.BOOKING_CREATED.equals(eventType) || OutboxEvent.BOOKING_STATUS_CHANGED.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxEvent event, Booking booking) {
+        if (OutboxEvent.BOOKING_CREATED.equals(event.getType())) {
+            reminderEngine.schedule(booking);
+            return;
+        }
+        Object status = event.getPayload().get("status");
+        if (BookingStatus.CANCELLED.name().equals(status) || BookingStatus.COMPLETED.name().equals(status)) {
+            reminderEngine.cancel(booking.getId());
+        }
+    }
+}
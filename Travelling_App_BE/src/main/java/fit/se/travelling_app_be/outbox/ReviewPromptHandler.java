@@ -0,0 +1,41 @@
+package fit.se.travelling_app_be.outbox;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Asks the traveller to review the destination once their booking is completed
+@Component
+@RequiredArgsConstructor
+public class ReviewPromptHandler implements BookingEventHandler {
+    
+    private final NotificationService notificationService;
+    
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxEvent.BOOKING_STATUS_CHANGED.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxEvent event, Booking booking) {
+        if (!BookingStatus.COMPLETED.name().equals(event.getPayload().get("status"))) {
+            return;
+        }
+        
+        String destinationName = "điểm đến của bạn";
+        if (booking.getDestination() != null && booking.getDestination().getName() != null) {
+            destinationName = booking.getDestination().getName();
+        }
+        notificationService.createNotificationOnce(
+            event.getEventId(),
+            booking.getUserId(),
+            "Chuyến đi thế nào? ⭐",
+            "Hãy chia sẻ cảm nhận của bạn về " + destinationName + " để giúp những du khách khác!",
+            "review",
+            booking.getDestination() != null ? booking.getDestination().getId() : booking.getId()
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package fit.se.travelling_app_be.rating;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import fit.se.travelling_app_be.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Applies rating deltas to the destination in one atomic update, independent of how many reviews it has
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregator {
+    
+    private final DestinationRepository destinationRepository;
+    private final ReviewRepository reviewRepository;
+    private final RatingJournal journal;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Returns false when the batch was not applied (missing destination or batch already applied)
+    public boolean apply(String destinationId, RatingDelta delta, String batchId) {
+        if (delta.isEmpty()) {
+            return false;
+        }
+        Destination updated = destinationRepository.applyRatingDelta(destinationId, delta, batchId);
+        if (updated == null && destinationRepository.isRatingUntracked(destinationId)) {
+            seed(destinationId);
+            updated = destinationRepository.applyRatingDelta(destinationId, delta, batchId);
+        }
+        if (updated == null) {
+            log.warn("Rating batch {} for destination {} skipped: destination missing or batch already applied",
+                batchId, destinationId);
+            return false;
+        }
+        eventPublisher.publishEvent(new DestinationChangedEvent(destinationId, updated));
+        return true;
+    }
+    
+    /**
+     * Starts the aggregates of a destination that was never tracked (seed data, imports) from the
+     * reviews it already has. Deltas still in the journal, this batch included, are subtracted
+     * because their reviews are already written and the deltas are applied on top. A review
+     * written while this runs can be off by one until the reconciler's next pass.
+     */
+    private void seed(String destinationId) {
+        RatingDelta totals = new RatingDelta();
+        reviewRepository.countByStars(destinationId).forEach((stars, count) -> {
+            if (stars >= RatingDelta.MIN_STARS && stars <= RatingDelta.MAX_STARS) {
+                totals.add(stars, count.intValue());
+            }
+        });
+        RatingDelta pending = journal.sumPending(destinationId);
+        for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+            totals.add(stars, -pending.getStarCount(stars));
+        }
+        if (destinationRepository.seedRatingAggregates(destinationId, totals)) {
+            log.info("Seeded rating aggregates of destination {} from {} reviews", destinationId, totals.getCount());
+        }
+    }
+}
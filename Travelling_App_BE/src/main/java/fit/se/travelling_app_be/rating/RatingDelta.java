@@ -0,0 +1,88 @@
+package fit.se.travelling_app_be.rating;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A change to a destination's rating aggregates: the star sum, the review count and the
+ * per-star histogram. Review writes turn into deltas so the destination can be updated with
+ * a single atomic increment instead of re-reading every review.
+ */
+@Getter
+public class RatingDelta {
+    
+    public static final int MIN_STARS = 1;
+    public static final int MAX_STARS = 5;
+    
+    private long sum;
+    private int count;
+    private final int[] starCounts = new int[MAX_STARS]; // index 0 = one star
+    
+    public static RatingDelta added(int stars) {
+        RatingDelta delta = new RatingDelta();
+        delta.add(stars, 1);
+        return delta;
+    }
+    
+    public static RatingDelta removed(int stars) {
+        RatingDelta delta = new RatingDelta();
+        delta.add(stars, -1);
+        return delta;
+    }
+    
+    public static RatingDelta changed(int oldStars, int newStars) {
+        RatingDelta delta = new RatingDelta();
+        delta.add(oldStars, -1);
+        delta.add(newStars, 1);
+        return delta;
+    }
+    
+    // Inverse of toStarCounts(); sum and count follow from the histogram
+    public static RatingDelta fromStarCounts(List<Integer> starCounts) {
+        RatingDelta delta = new RatingDelta();
+        for (int i = 0; i < starCounts.size() && i < MAX_STARS; i++) {
+            delta.add(i + MIN_STARS, starCounts.get(i));
+        }
+        return delta;
+    }
+    
+    public List<Integer> toStarCounts() {
+        return Arrays.stream(starCounts).boxed().toList();
+    }
+    
+    public void add(int stars, int reviews) {
+        if (stars < MIN_STARS || stars > MAX_STARS) {
+            throw new IllegalArgumentException("Rating must be between " + MIN_STARS + " and " + MAX_STARS);
+        }
+        sum += (long) stars * reviews;
+        count += reviews;
+        starCounts[stars - 1] += reviews;
+    }
+    
+    public void merge(RatingDelta other) {
+        sum += other.sum;
+        count += other.count;
+        for (int i = 0; i < MAX_STARS; i++) {
+            starCounts[i] += other.starCounts[i];
+        }
+    }
+    
+    public int getStarCount(int stars) {
+        return starCounts[stars - 1];
+    }
+    
+    // An edit that keeps the same rating nets out to nothing
+    public boolean isEmpty() {
+        if (sum != 0 || count != 0) {
+            return false;
+        }
+        for (int starCount : starCounts) {
+            if (starCount != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
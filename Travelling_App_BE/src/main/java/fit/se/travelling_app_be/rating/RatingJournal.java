@@ -0,0 +1,107 @@
+package fit.se.travelling_app_be.rating;
+
+import fit.se.travelling_app_be.entity.RatingJournalEntry;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable log of rating deltas waiting in RatingUpdateBuffer. Entries are appended when a
+ * review is written, claimed under a batch id by the flush that applies them and deleted
+ * after the batch is applied, so anything still here after a crash can be replayed.
+ */
+@Component
+@RequiredArgsConstructor
+public class RatingJournal {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public String append(String destinationId, RatingDelta delta) {
+        RatingJournalEntry entry = new RatingJournalEntry();
+        entry.setDestinationId(destinationId);
+        entry.setStarCounts(delta.toStarCounts());
+        entry.setCreatedAt(LocalDateTime.now());
+        return mongoTemplate.insert(entry).getId();
+    }
+    
+    // Only unclaimed entries are taken, so two claims never share an entry
+    public long claim(List<String> entryIds, String batchId) {
+        Query query = Query.query(Criteria.where("id").in(entryIds).and("batchId").is(null));
+        return mongoTemplate.updateMulti(query, Update.update("batchId", batchId), RatingJournalEntry.class)
+            .getModifiedCount();
+    }
+    
+    public long claimStale(String destinationId, String batchId, LocalDateTime before) {
+        Query query = Query.query(Criteria.where("destinationId").is(destinationId)
+            .and("batchId").is(null).and("createdAt").lt(before));
+        return mongoTemplate.updateMulti(query, Update.update("batchId", batchId), RatingJournalEntry.class)
+            .getModifiedCount();
+    }
+    
+    // Deltas for the destination that were accepted but not applied yet, claimed or not
+    public boolean hasPending(String destinationId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("destinationId").is(destinationId)),
+            RatingJournalEntry.class);
+    }
+    
+    // Sum of every delta for the destination that is still waiting to be applied
+    public RatingDelta sumPending(String destinationId) {
+        RatingDelta delta = new RatingDelta();
+        mongoTemplate.find(Query.query(Criteria.where("destinationId").is(destinationId)), RatingJournalEntry.class)
+            .forEach(entry -> delta.merge(RatingDelta.fromStarCounts(entry.getStarCounts())));
+        return delta;
+    }
+    
+    public List<String> findStaleDestinations(LocalDateTime before) {
+        Query query = Query.query(Criteria.where("batchId").is(null).and("createdAt").lt(before));
+        return mongoTemplate.findDistinct(query, "destinationId", RatingJournalEntry.class, String.class);
+    }
+    
+    // Claimed batches whose entries are older than the cutoff: flushes that crashed or were recovered
+    public List<Batch> findStaleBatches(LocalDateTime before) {
+        GroupOperation group = Aggregation.group("batchId", "destinationId");
+        for (int i = 0; i < RatingDelta.MAX_STARS; i++) {
+            group = group.sum(ArrayOperators.ArrayElemAt.arrayOf("starCounts").elementAt(i)).as("stars" + i);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("batchId").ne(null).and("createdAt").lt(before)),
+            group);
+        
+        List<Batch> batches = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, RatingJournalEntry.class, Document.class)) {
+            Document key = result.get("_id", Document.class);
+            List<Integer> starCounts = new ArrayList<>();
+            for (int i = 0; i < RatingDelta.MAX_STARS; i++) {
+                starCounts.add(result.get("stars" + i, Number.class).intValue());
+            }
+            batches.add(new Batch(key.getString("batchId"), key.getString("destinationId"),
+                RatingDelta.fromStarCounts(starCounts)));
+        }
+        return batches;
+    }
+    
+    public RatingDelta sumBatch(String batchId) {
+        RatingDelta delta = new RatingDelta();
+        mongoTemplate.find(Query.query(Criteria.where("batchId").is(batchId)), RatingJournalEntry.class)
+            .forEach(entry -> delta.merge(RatingDelta.fromStarCounts(entry.getStarCounts())));
+        return delta;
+    }
+    
+    public void deleteBatch(String batchId) {
+        mongoTemplate.remove(Query.query(Criteria.where("batchId").is(batchId)), RatingJournalEntry.class);
+    }
+    
+    public record Batch(String batchId, String destinationId, RatingDelta delta) {
+    }
+}
@@ -0,0 +1,140 @@
+package fit.se.travelling_app_be.rating;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.Review;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes the rating aggregates from the reviews collection and fixes destinations whose
+ * incrementally maintained values drifted (lost writes, manual edits, reviews that predate
+ * the aggregates). Destinations written to after the scan started are left for the next run,
+ * and so are destinations with deltas still in the rating journal: the scan may already count
+ * those reviews, and the pending flush would then add them a second time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingReconciler {
+    
+    private final MongoTemplate mongoTemplate;
+    private final RatingJournal journal;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Scheduled(initialDelayString = "${app.rating.reconcile-initial-delay:PT1M}",
+        fixedDelayString = "${app.rating.reconcile-interval:PT6H}")
+    public void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Set<String> reviewed = new HashSet<>();
+        int corrected = 0;
+        
+        GroupOperation group = Aggregation.group("destinationId")
+            .sum("rating").as("ratingSum")
+            .count().as("reviewCount");
+        for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+            group = group.sum(ConditionalOperators.when(ComparisonOperators.valueOf("rating").equalToValue(stars))
+                .then(1).otherwise(0)).as("stars" + stars);
+        }
+        
+        try (Stream<Document> totals = mongoTemplate.aggregateStream(
+                Aggregation.newAggregation(Review.class, group), Document.class)) {
+            Iterator<Document> iterator = totals.iterator();
+            while (iterator.hasNext()) {
+                Document total = iterator.next();
+                String destinationId = total.getString("_id");
+                if (destinationId == null) {
+                    continue;
+                }
+                reviewed.add(destinationId);
+                int[] starCounts = new int[RatingDelta.MAX_STARS];
+                for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+                    starCounts[stars - 1] = total.getInteger("stars" + stars, 0);
+                }
+                long ratingSum = total.get("ratingSum", Number.class).longValue();
+                if (correct(destinationId, ratingSum, total.getInteger("reviewCount"), starCounts, startedAt)) {
+                    corrected++;
+                }
+            }
+        }
+        
+        // Tracked destinations whose reviews were all removed
+        Query orphaned = Query.query(Criteria.where("ratingSum").exists(true).and("reviewCount").ne(0)
+            .and("updatedAt").lt(startedAt));
+        orphaned.fields().include("id");
+        for (Destination destination : mongoTemplate.find(orphaned, Destination.class)) {
+            if (!reviewed.contains(destination.getId())
+                    && correct(destination.getId(), 0, 0, new int[RatingDelta.MAX_STARS], startedAt)) {
+                corrected++;
+            }
+        }
+        
+        log.info("Rating reconciliation checked {} reviewed destinations, corrected {}", reviewed.size(), corrected);
+    }
+    
+    // Writes only when the stored aggregates differ, nobody updated the destination since startedAt
+    // and no rating deltas are waiting to be applied to it
+    private boolean correct(String destinationId, long ratingSum, int reviewCount, int[] starCounts,
+                            LocalDateTime startedAt) {
+        if (journal.hasPending(destinationId)) {
+            return false;
+        }
+        List<Criteria> differences = new ArrayList<>();
+        differences.add(Criteria.where("ratingSum").ne(ratingSum));
+        differences.add(Criteria.where("reviewCount").ne(reviewCount));
+        Map<String, Integer> ratingCounts = new LinkedHashMap<>();
+        for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+            int count = starCounts[stars - 1];
+            ratingCounts.put(String.valueOf(stars), count);
+            // A star that never received a review may simply be missing from the histogram
+            differences.add(count == 0
+                ? Criteria.where("ratingCounts." + stars).nin(0, null)
+                : Criteria.where("ratingCounts." + stars).ne(count));
+        }
+        Criteria notUpdatedSince = new Criteria().orOperator(
+            Criteria.where("updatedAt").lt(startedAt),
+            Criteria.where("updatedAt").exists(false));
+        Query query = Query.query(new Criteria().andOperator(
+            Criteria.where("id").is(destinationId),
+            new Criteria().orOperator(differences),
+            notUpdatedSince));
+        
+        Update update = new Update()
+            .set("ratingSum", ratingSum)
+            .set("reviewCount", reviewCount)
+            .set("ratingCounts", ratingCounts)
+            .set("rating", reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0)
+            .currentDate("updatedAt");
+        Destination updated = mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), Destination.class);
+        if (updated == null) {
+            return false;
+        }
+        log.warn("Corrected rating drift for destination {}: sum={} count={}", destinationId, ratingSum, reviewCount);
+        eventPublisher.publishEvent(new DestinationChangedEvent(destinationId, updated));
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package fit.se.travelling_app_be.rating;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces rating deltas per destination so a burst of reviews on one destination turns into
+ * a single update of its document. Deltas are journaled before they are buffered; a flush
+ * claims the journal entries under a batch id, applies the merged delta and deletes the entries.
+ * Anything left in the journal (crash, failed flush) is replayed by recover(), and the batch id
+ * recorded on the destination keeps a replay from being counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingUpdateBuffer {
+    
+    private final RatingJournal journal;
+    private final RatingAggregator ratingAggregator;
+    
+    // ConcurrentHashMap.compute locks a single bin, so writers to different destinations never contend
+    private final ConcurrentHashMap<String, PendingRating> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rating-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Value("${app.rating.buffer.max-pending:500}")
+    private int maxPending;
+    
+    @Value("${app.rating.buffer.stale-after:PT1M}")
+    private Duration staleAfter;
+    
+    public void submit(String destinationId, RatingDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        String entryId = journal.append(destinationId, delta);
+        pending.compute(destinationId, (id, current) -> {
+            PendingRating rating = current != null ? current : new PendingRating();
+            rating.delta.merge(delta);
+            rating.entryIds.add(entryId);
+            return rating;
+        });
+        
+        if (pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.rating.buffer.flush-interval:PT0.5S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (String destinationId : pending.keySet()) {
+                PendingRating rating = pending.remove(destinationId);
+                if (rating != null) {
+                    flush(destinationId, rating);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    // Replays journal entries that no live flush picked up in time
+    @Scheduled(initialDelayString = "${app.rating.buffer.recovery-initial-delay:PT10S}",
+        fixedDelayString = "${app.rating.buffer.recovery-interval:PT1M}")
+    public void recover() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(staleAfter);
+        try {
+            for (String destinationId : journal.findStaleDestinations(cutoff)) {
+                journal.claimStale(destinationId, newBatchId(), cutoff);
+            }
+            int replayed = 0;
+            for (RatingJournal.Batch batch : journal.findStaleBatches(cutoff)) {
+                ratingAggregator.apply(batch.destinationId(), batch.delta(), batch.batchId());
+                journal.deleteBatch(batch.batchId());
+                replayed++;
+            }
+            if (replayed > 0) {
+                log.info("Replayed {} rating batches from the journal", replayed);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error replaying rating journal: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        log.info("Rating buffer drained");
+    }
+    
+    private void flush(String destinationId, PendingRating rating) {
+        String batchId = newBatchId();
+        try {
+            long claimed = journal.claim(rating.entryIds, batchId);
+            if (claimed == 0) {
+                return; // already replayed by recover()
+            }
+            RatingDelta delta = claimed == rating.entryIds.size() ? rating.delta : journal.sumBatch(batchId);
+            ratingAggregator.apply(destinationId, delta, batchId);
+            journal.deleteBatch(batchId);
+        } catch (Exception e) {
+            // The entries stay in the journal and are replayed once stale
+            log.error("❌ Error flushing rating batch {} for destination {}: {}", batchId, destinationId, e.getMessage());
+        }
+    }
+    
+    private static String newBatchId() {
+        return new ObjectId().toHexString();
+    }
+    
+    private static final class PendingRating {
+        private final RatingDelta delta = new RatingDelta();
+        private final List<String> entryIds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,266 @@
+package fit.se.travelling_app_be.reminder;
+
+import fit.se.travelling_app_be.cluster.PartitionLeaseManager;
+import fit.se.travelling_app_be.cluster.Partitioning;
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.ScheduledReminder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Schedules the pre-departure reminders of a booking when it is created instead of polling for
+ * them. Every reminder is stored in scheduled_reminders with its due time; only the ones due
+ * within the next window are held in memory, in a timing wheel advanced once per tick, and
+ * refill() pulls the following window from the (status, dueAt) index before it starts. After
+ * a restart the wheel is rebuilt the same way, so memory is bounded by the window, not by the
+ * number of reminders scheduled.
+ *
+ * Loading is split between nodes: each loads only the shards of the reminder partitions it
+ * holds a lease on, and reloads its window when those change. A reminder scheduled within the
+ * current window is fired by the node that scheduled it, whoever owns its shard.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderEngine {
+    
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String CANCELLED = "CANCELLED";
+    
+    private final MongoTemplate mongoTemplate;
+    private final ReminderSender sender;
+    private final PartitionLeaseManager reminderLeases;
+    
+    private final Object lock = new Object();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private TimingWheel<String> wheel;
+    private LocalDateTime loadedUntil; // reminders due before this are in the wheel (or already fired)
+    
+    @Value("${app.reminder.tick:PT1S}")
+    private Duration tick;
+    
+    @Value("${app.reminder.wheel-size:60}")
+    private int wheelSize;
+    
+    @Value("${app.reminder.window:PT1H}")
+    private Duration window;
+    
+    @Value("${app.reminder.send-time:08:00}")
+    private String sendTime;
+    
+    @Value("${app.reminder.sweep-after:PT10M}")
+    private Duration sweepAfter;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (lock) {
+            wheel = new TimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        }
+        reminderLeases.onChange(() -> ticker.execute(this::reload));
+        refill();
+        ticker.scheduleAtFixedRate(this::advance, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+    
+    /**
+     * (Re)schedules the reminders of a booking from its travel date. Reminders whose due time is
+     * unchanged are left alone, including ones already sent; a moved travel date resets them.
+     * Returns how many reminders were newly scheduled or moved.
+     */
+    public int schedule(Booking booking) {
+        if (booking.getTravelDate() == null || !isActive(booking.getStatus())) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDateTime windowEnd = LocalDateTime.now().plus(window);
+        LocalTime at = LocalTime.parse(sendTime);
+        int scheduled = 0;
+        List<String> dueNow = new ArrayList<>();
+        
+        for (ReminderKind kind : ReminderKind.values()) {
+            LocalDateTime dueAt = kind.dueAt(booking.getTravelDate(), at);
+            if (dueAt.toLocalDate().isBefore(today)) {
+                continue; // that reminder's day is over
+            }
+            String id = ScheduledReminder.idOf(booking.getId(), kind.getType());
+            // Matches only a missing or moved reminder; an unchanged one makes the upsert collide on _id
+            Query query = Query.query(Criteria.where("id").is(id).and("dueAt").ne(dueAt));
+            Update update = new Update()
+                .set("bookingId", booking.getId())
+                .set("userId", booking.getUserId())
+                .set("shard", booking.getShard() != null ? booking.getShard() : Partitioning.shardOf(booking))
+                .set("reminderType", kind.getType())
+                .set("travelDate", booking.getTravelDate())
+                .set("dueAt", dueAt)
+                .set("status", PENDING)
+                .unset("finishedAt");
+            try {
+                mongoTemplate.upsert(query, update, ScheduledReminder.class);
+            } catch (DuplicateKeyException e) {
+                continue;
+            }
+            scheduled++;
+            
+            // The owner of the shard may have loaded this window already, so we fire it ourselves
+            synchronized (lock) {
+                if (wheel != null && dueAt.isBefore(windowEnd) && !wheel.add(toMillis(dueAt), id)) {
+                    dueNow.add(id);
+                }
+            }
+        }
+        sender.submit(dueNow);
+        return scheduled;
+    }
+    
+    // Entries still in the wheel are dropped by the sender once it sees the reminder is no longer pending
+    public void cancel(String bookingId) {
+        Query query = Query.query(Criteria.where("bookingId").is(bookingId).and("status").is(PENDING));
+        mongoTemplate.updateMulti(query,
+            new Update().set("status", CANCELLED).set("finishedAt", LocalDateTime.now()),
+            ScheduledReminder.class);
+    }
+    
+    /**
+     * Loads the reminders of our shards that become due within the next window; runs well before
+     * the window ends. Also resubmits reminders of our shards that are overdue by more than
+     * sweep-after without having been sent, e.g. because they were scheduled on another node
+     * for a window their owner had already loaded and that node went down.
+     */
+    @Scheduled(fixedDelayString = "${app.reminder.refill-interval:PT5M}")
+    public void refill() {
+        // Resolved before loadedUntil moves: a late heartbeat briefly leaves no valid lease, and
+        // getting the same partitions back fires no reload, so the skipped range is loaded next time
+        List<Integer> shards = Partitioning.shardsOf(reminderLeases.ownedPartitions().keySet(),
+            reminderLeases.getPartitions());
+        if (shards.isEmpty()) {
+            return;
+        }
+        LocalDateTime from;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(window);
+        synchronized (lock) {
+            if (wheel == null) {
+                return;
+            }
+            from = loadedUntil;
+            loadedUntil = until;
+        }
+        
+        // The first load after startup or a change of partitions also picks up reminders that are already due
+        Criteria due = from == null
+            ? Criteria.where("dueAt").lt(until)
+            : Criteria.where("dueAt").gte(from).lt(until);
+        Query query = Query.query(Criteria.where("status").is(PENDING).and("shard").in(shards).andOperator(due));
+        query.fields().include("dueAt");
+        
+        int loaded = 0;
+        List<String> dueNow = new ArrayList<>();
+        try (Stream<ScheduledReminder> reminders = mongoTemplate.stream(query, ScheduledReminder.class)) {
+            Iterator<ScheduledReminder> iterator = reminders.iterator();
+            while (iterator.hasNext()) {
+                ScheduledReminder reminder = iterator.next();
+                synchronized (lock) {
+                    if (!wheel.add(toMillis(reminder.getDueAt()), reminder.getId())) {
+                        dueNow.add(reminder.getId());
+                    }
+                }
+                loaded++;
+            }
+        } catch (Exception e) {
+            synchronized (lock) {
+                if (loadedUntil == until) {
+                    loadedUntil = from; // retried by the next refill
+                }
+            }
+            log.error("❌ Error loading scheduled reminders: {}", e.getMessage());
+            return;
+        }
+        sender.submit(dueNow);
+        if (loaded > 0) {
+            log.debug("Loaded {} reminders due before {}", loaded, until);
+        }
+        
+        if (from != null) {
+            sweep(shards, now.minus(sweepAfter));
+        }
+    }
+    
+    private void sweep(List<Integer> shards, LocalDateTime overdueBefore) {
+        try {
+            Query overdue = Query.query(Criteria.where("status").is(PENDING).and("shard").in(shards)
+                .and("dueAt").lt(overdueBefore));
+            overdue.fields().include("id");
+            List<String> missed = mongoTemplate.find(overdue, ScheduledReminder.class).stream()
+                .map(ScheduledReminder::getId).toList();
+            if (!missed.isEmpty()) {
+                log.warn("Resubmitting {} overdue reminders", missed.size());
+                sender.submit(missed);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error sweeping overdue reminders: {}", e.getMessage());
+        }
+    }
+    
+    // Our partitions changed: load the whole window for the shards we hold now
+    private void reload() {
+        synchronized (lock) {
+            loadedUntil = null;
+        }
+        refill();
+    }
+    
+    private void advance() {
+        List<String> due = new ArrayList<>();
+        try {
+            synchronized (lock) {
+                wheel.advance(System.currentTimeMillis(), due::add);
+            }
+            sender.submit(due);
+        } catch (Exception e) {
+            // Must not escape: the ticker would stop for good
+            log.error("❌ Error advancing reminder wheel: {}", e.getMessage());
+        }
+    }
+    
+    static boolean isActive(String status) {
+        return BookingStatus.CONFIRMED.name().equals(status) || BookingStatus.PENDING.name().equals(status);
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,74 @@
+package fit.se.travelling_app_be.reminder;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.model.Notification;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+// Nhắc nhở theo số ngày còn lại trước khi khởi hành
+@Getter
+@RequiredArgsConstructor
+public enum ReminderKind {
+    DAYS_7(7, "upcoming-7d", "Tour sắp đến! 🗓️"),
+    DAYS_3(3, "upcoming-3d", "Nhắc nhở: Tour sắp khởi hành 📅"),
+    DAYS_1(1, "upcoming-1d", "Tour sắp khởi hành! 🎒"),
+    DAYS_0(0, "upcoming-0d", "Tour khởi hành hôm nay! 🚀");
+    
+    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    private final int daysBefore;
+    private final String type;
+    private final String title;
+    
+    // sendTime on the reminder day, but never later than the same time of day as the departure
+    public LocalDateTime dueAt(LocalDateTime travelDate, LocalTime sendTime) {
+        LocalDateTime latest = travelDate.minusDays(daysBefore);
+        LocalDateTime atSendTime = latest.toLocalDate().atTime(sendTime);
+        return atSendTime.isAfter(latest) ? latest : atSendTime;
+    }
+    
+    public String message(String destinationName, LocalDate travelDate) {
+        return switch (this) {
+            case DAYS_7 -> "Tour đến " + destinationName
+                + " của bạn sẽ khởi hành trong 1 tuần nữa. Đừng quên chuẩn bị hành lý nhé!";
+            case DAYS_3 -> "Tour đến " + destinationName + " của bạn sẽ khởi hành trong 3 ngày nữa (ngày "
+                + travelDate.format(DISPLAY_FORMATTER) + ").";
+            case DAYS_1 -> "Tour đến " + destinationName
+                + " của bạn sẽ khởi hành vào ngày mai. Hãy chuẩn bị sẵn sàng!";
+            case DAYS_0 -> "Chuyến đi đến " + destinationName
+                + " của bạn khởi hành hôm nay. Chúc bạn có một chuyến đi vui vẻ!";
+        };
+    }
+    
+    public Notification toNotification(Booking booking) {
+        String destinationName = "điểm đến của bạn";
+        if (booking.getDestination() != null && booking.getDestination().getName() != null) {
+            destinationName = booking.getDestination().getName();
+        }
+        
+        Notification notification = new Notification();
+        notification.setUserId(booking.getUserId());
+        notification.setTitle(title);
+        notification.setMessage(message(destinationName, booking.getTravelDate().toLocalDate()));
+        notification.setType("booking");
+        notification.setRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRelatedId(booking.getId());
+        notification.setReminderType(type);
+        return notification;
+    }
+    
+    public static ReminderKind fromType(String type) {
+        for (ReminderKind kind : values()) {
+            if (kind.type.equals(type)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown reminder type: " + type);
+    }
+}
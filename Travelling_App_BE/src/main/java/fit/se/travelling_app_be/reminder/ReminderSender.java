@@ -0,0 +1,126 @@
+package fit.se.travelling_app_be.reminder;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.ScheduledReminder;
+import fit.se.travelling_app_be.model.Notification;
+import fit.se.travelling_app_be.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the reminders the wheel hands over, in batches: one read of the reminders, one read of
+ * their bookings, one bulk insert of notifications and one update marking them sent. Sending is
+ * idempotent (unique index on relatedId + reminderType), so a batch that fails is simply retried
+ * and two nodes firing the same reminder still produce one notification.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderSender {
+    
+    // The wheel fires up to one tick early
+    private static final Duration EARLY_TOLERANCE = Duration.ofSeconds(5);
+    
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+    
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Value("${app.reminder.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.reminder.retry-delay:PT30S}")
+    private Duration retryDelay;
+    
+    public void submit(List<String> reminderIds) {
+        if (reminderIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = List.copyOf(reminderIds);
+        executor.execute(() -> send(ids));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void send(List<String> reminderIds) {
+        for (int from = 0; from < reminderIds.size(); from += batchSize) {
+            List<String> batch = reminderIds.subList(from, Math.min(from + batchSize, reminderIds.size()));
+            try {
+                sendBatch(batch);
+            } catch (Exception e) {
+                log.error("❌ Error sending {} reminders, retrying in {}: {}", batch.size(), retryDelay, e.getMessage());
+                List<String> retry = List.copyOf(batch);
+                executor.schedule(() -> send(retry), retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private void sendBatch(List<String> reminderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        // A reminder that was moved or cancelled since it entered the wheel no longer matches
+        Query dueQuery = Query.query(Criteria.where("id").in(reminderIds)
+            .and("status").is(ReminderEngine.PENDING)
+            .and("dueAt").lte(now.plus(EARLY_TOLERANCE)));
+        List<ScheduledReminder> reminders = mongoTemplate.find(dueQuery, ScheduledReminder.class);
+        if (reminders.isEmpty()) {
+            return;
+        }
+        
+        Query bookingQuery = Query.query(Criteria.where("id").in(reminders.stream().map(ScheduledReminder::getBookingId).toList()));
+        bookingQuery.fields().include("userId", "destination", "travelDate", "status");
+        Map<String, Booking> bookings = new HashMap<>();
+        mongoTemplate.find(bookingQuery, Booking.class).forEach(booking -> bookings.put(booking.getId(), booking));
+        
+        List<Notification> notifications = new ArrayList<>();
+        List<String> sent = new ArrayList<>();
+        List<String> obsolete = new ArrayList<>();
+        for (ScheduledReminder reminder : reminders) {
+            Booking booking = bookings.get(reminder.getBookingId());
+            if (booking == null || !ReminderEngine.isActive(booking.getStatus())
+                    || !Objects.equals(booking.getTravelDate(), reminder.getTravelDate())) {
+                obsolete.add(reminder.getId());
+                continue;
+            }
+            notifications.add(ReminderKind.fromType(reminder.getReminderType()).toNotification(booking));
+            sent.add(reminder.getId());
+        }
+        
+        long inserted = notificationService.createReminders(notifications);
+        finish(sent, ReminderEngine.SENT, now);
+        finish(obsolete, ReminderEngine.CANCELLED, now);
+        log.info("🔔 Sent {} reminders ({} already sent, {} obsolete)", inserted, sent.size() - inserted, obsolete.size());
+    }
+    
+    private void finish(List<String> reminderIds, String status, LocalDateTime now) {
+        if (reminderIds.isEmpty()) {
+            return;
+        }
+        Query query = Query.query(Criteria.where("id").in(reminderIds).and("status").is(ReminderEngine.PENDING));
+        mongoTemplate.updateMulti(query, new Update().set("status", status).set("finishedAt", now), ScheduledReminder.class);
+    }
+}
@@ -0,0 +1,97 @@
+package fit.se.travelling_app_be.reminder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. The lowest level has wheelSize buckets of tickMillis each; an entry
+ * due beyond a level's span goes to the next level, whose buckets are wheelSize times wider, and
+ * cascades down when the clock reaches its bucket. Adding is O(1) and every entry moves at most
+ * once per level, however many entries are pending. Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<T> {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long spanMillis;
+    private final List<ArrayDeque<Entry<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+    
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spanMillis = tickMillis * wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+    
+    // False when the entry is already due (less than one tick ahead); the caller fires it itself
+    boolean add(long dueMillis, T value) {
+        if (!place(new Entry<>(dueMillis, value))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+    
+    // Moves the clock forward to nowMillis and hands over every entry that came due, in due order per tick
+    void advance(long nowMillis, Consumer<T> expired) {
+        advanceLevel(nowMillis, entry -> {
+            if (!place(entry)) {
+                size--;
+                expired.accept(entry.value());
+            }
+        });
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    private void advanceLevel(long nowMillis, EntrySink<T> sink) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                // Entries of the coarser level whose bucket just started drop into this one
+                overflow.advanceLevel(currentTime, sink);
+            }
+            ArrayDeque<Entry<T>> bucket = buckets.get(index(currentTime));
+            while (!bucket.isEmpty()) {
+                sink.accept(bucket.poll());
+            }
+        }
+    }
+    
+    private boolean place(Entry<T> entry) {
+        if (entry.dueMillis() < currentTime + tickMillis) {
+            return false;
+        }
+        if (entry.dueMillis() < currentTime + spanMillis) {
+            buckets.get(index(entry.dueMillis())).add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(spanMillis, wheelSize, currentTime);
+        }
+        return overflow.place(entry);
+    }
+    
+    private int index(long timeMillis) {
+        return (int) Math.floorMod(timeMillis / tickMillis, (long) wheelSize);
+    }
+    
+    private record Entry<T>(long dueMillis, T value) {
+    }
+    
+    @FunctionalInterface
+    private interface EntrySink<T> {
+        void accept(Entry<T> entry);
+    }
+}
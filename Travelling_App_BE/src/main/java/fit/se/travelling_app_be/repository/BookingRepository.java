@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends MongoRepository<Booking, String> {
+public interface BookingRepository extends MongoRepository<Booking, String>, BookingRepositoryCustom {
     
     List<Booking> findByUserId(String userId);
     
@@ -20,6 +20,13 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
     @Query("{'userId': ?0, 'status': {$in: ['CONFIRMED', 'COMPLETED']}}")
     List<Booking> findActiveBookingsByUserId(String userId);
     
-    @Query("{'travelDate': {$gte: ?0}, 'status': 'CONFIRMED'}")
-    List<Booking> findUpcomingBookings(LocalDateTime now);
+    // Range scan on the (status, travelDate) index; loads only what scheduling reminders needs
+    @Query(value = "{'status': {$in: ['CONFIRMED', 'PENDING']}, 'travelDate': {$gte: ?0, $lt: ?1}}",
+        fields = "{'userId': 1, 'travelDate': 1, 'status': 1}")
+    List<Booking> findUpcomingBookings(LocalDateTime from, LocalDateTime to);
+    
+    // Same, restricted to the shards of one partition (shard, status, travelDate index)
+    @Query(value = "{'shard': {$in: ?2}, 'status': {$in: ['CONFIRMED', 'PENDING']}, 'travelDate': {$gte: ?0, $lt: ?1}}",
+        fields = "{'userId': 1, 'travelDate': 1, 'status': 1}")
+    List<Booking> findUpcomingBookings(LocalDateTime from, LocalDateTime to, List<Integer> shards);
 }
@@ -0,0 +1,21 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.BookingSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.BookingListItem;
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    
+    // Keyed on (travelDate, _id); statuses, from and to may be null (to is exclusive)
+    List<BookingListItem> findPage(String userId, List<String> statuses, LocalDateTime from, LocalDateTime to,
+                                   BookingSort sort, PageCursor after, int limit);
+    
+    // Sets field to target and queues the event in one write, only while field holds one of sources.
+    // Returns the updated booking, or null if the filter missed.
+    Booking transition(String id, String field, String target, List<String> sources, OutboxEvent event);
+}
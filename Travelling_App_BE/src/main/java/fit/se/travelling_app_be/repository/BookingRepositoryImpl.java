@@ -0,0 +1,80 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.BookingSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.BookingListItem;
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<BookingListItem> findPage(String userId, List<String> statuses, LocalDateTime from,
+                                          LocalDateTime to, BookingSort sort, PageCursor after, int limit) {
+        List<Criteria> conditions = new ArrayList<>();
+        conditions.add(Criteria.where("userId").is(userId));
+        if (statuses != null && !statuses.isEmpty()) {
+            // Several statuses are merged from their index ranges, still in travelDate order
+            conditions.add(Criteria.where("status").in(statuses));
+        }
+        if (from != null || to != null) {
+            Criteria range = Criteria.where(BookingSort.FIELD);
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lt(to);
+            }
+            conditions.add(range);
+        }
+        if (after != null) {
+            conditions.add(afterCursor(sort, after));
+        }
+        
+        Query query = new Query(new Criteria().andOperator(conditions))
+            .with(Sort.by(sort.getDirection(), BookingSort.FIELD, "id"))
+            .limit(limit);
+        return mongoTemplate.query(Booking.class)
+            .as(BookingListItem.class)
+            .matching(query)
+            .all();
+    }
+    
+    @Override
+    public Booking transition(String id, String field, String target, List<String> sources, OutboxEvent event) {
+        Query query = Query.query(Criteria.where("id").is(id).and(field).in(sources));
+        Update update = new Update()
+            .set(field, target)
+            .currentDate("updatedAt")
+            .push("outbox", event)
+            .min("outboxDueAt", event.getNextAttemptAt());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+            Booking.class);
+    }
+    
+    // (travelDate > v) OR (travelDate == v AND _id > id), with the comparison flipped for descending sorts
+    private static Criteria afterCursor(BookingSort sort, PageCursor after) {
+        boolean ascending = sort.getDirection().isAscending();
+        Criteria pastValue = ascending
+            ? Criteria.where(BookingSort.FIELD).gt(after.getValue())
+            : Criteria.where(BookingSort.FIELD).lt(after.getValue());
+        Criteria sameValue = ascending
+            ? Criteria.where(BookingSort.FIELD).is(after.getValue()).and("id").gt(after.getId())
+            : Criteria.where(BookingSort.FIELD).is(after.getValue()).and("id").lt(after.getId());
+        return new Criteria().orOperator(pastValue, sameValue);
+    }
+}
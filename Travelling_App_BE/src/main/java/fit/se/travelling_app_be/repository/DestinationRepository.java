@@ -9,7 +9,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface DestinationRepository extends MongoRepository<Destination, String> {
+public interface DestinationRepository extends MongoRepository<Destination, String>, DestinationRepositoryCustom {
     
     // Find by category
     List<Destination> findByCategory(String category);
@@ -20,10 +20,6 @@ public interface DestinationRepository extends MongoRepository<Destination, Stri
     // Find popular destinations
     List<Destination> findByPopularTrue();
     
-    // Search by name (case insensitive)
-    @Query("{'name': {$regex: ?0, $options: 'i'}}")
-    List<Destination> findByNameContainingIgnoreCase(String name);
-    
     // Find by country
     List<Destination> findByCountry(String country);
     
@@ -0,0 +1,28 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.DestinationSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.rating.RatingDelta;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+public interface DestinationRepositoryCustom {
+    
+    // Keyset page of card projections ordered by (sort field, _id), starting after the cursor
+    List<DestinationCard> findCards(Criteria filter, DestinationSort sort, PageCursor after, int limit);
+    
+    List<DestinationCard> findCardsByIds(List<String> ids);
+    
+    // Atomically applies the delta and recomputes rating. Returns the updated destination, or null if it
+    // does not exist, its aggregates are not tracked yet or batchId was already applied.
+    Destination applyRatingDelta(String destinationId, RatingDelta delta, String batchId);
+    
+    // True if the destination exists but its aggregates were never maintained (seed data, imports)
+    boolean isRatingUntracked(String destinationId);
+    
+    // Sets the aggregates of an untracked destination to totals; false if it is tracked by now
+    boolean seedRatingAggregates(String destinationId, RatingDelta totals);
+}
@@ -0,0 +1,143 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.DestinationSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.rating.RatingDelta;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class DestinationRepositoryImpl implements DestinationRepositoryCustom {
+    
+    private static final int APPLIED_BATCHES_KEPT = 20;
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<DestinationCard> findCards(Criteria filter, DestinationSort sort, PageCursor after, int limit) {
+        List<Criteria> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add(filter);
+        }
+        if (after != null) {
+            conditions.add(afterCursor(sort, after));
+        }
+        
+        Query query = new Query();
+        if (!conditions.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(conditions));
+        }
+        query.with(Sort.by(sort.getDirection(), sort.getField(), "id")).limit(limit);
+        
+        return mongoTemplate.query(Destination.class)
+            .as(DestinationCard.class)
+            .matching(query)
+            .all();
+    }
+    
+    @Override
+    public List<DestinationCard> findCardsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Query query = new Query(Criteria.where("id").in(ids));
+        Map<String, DestinationCard> cardsById = mongoTemplate.query(Destination.class)
+            .as(DestinationCard.class)
+            .matching(query)
+            .all()
+            .stream()
+            .collect(Collectors.toMap(DestinationCard::getId, Function.identity()));
+        
+        // Keep the caller's ordering (e.g. relevance or distance)
+        return ids.stream()
+            .map(cardsById::get)
+            .filter(card -> card != null)
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public Destination applyRatingDelta(String destinationId, RatingDelta delta, String batchId) {
+        Document increments = new Document()
+            .append("ratingSum", plus("$ratingSum", delta.getSum()))
+            .append("reviewCount", plus("$reviewCount", delta.getCount()))
+            .append("updatedAt", "$$NOW")
+            .append("appliedRatingBatches", new Document("$slice", List.of(
+                new Document("$concatArrays", List.of(
+                    new Document("$ifNull", List.of("$appliedRatingBatches", List.of())), List.of(batchId))),
+                -APPLIED_BATCHES_KEPT)));
+        for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+            if (delta.getStarCount(stars) != 0) {
+                increments.append("ratingCounts." + stars, plus("$ratingCounts." + stars, delta.getStarCount(stars)));
+            }
+        }
+        Document average = new Document("rating", new Document("$cond", List.of(
+            new Document("$gt", List.of("$reviewCount", 0)),
+            new Document("$divide", List.of("$ratingSum", "$reviewCount")),
+            0.0)));
+        
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+            context -> new Document("$set", increments),
+            context -> new Document("$set", average)));
+        // A batch that is already recorded on the destination was applied before a crash or by another node
+        Query query = Query.query(Criteria.where("id").is(destinationId).and("ratingSum").exists(true)
+            .and("appliedRatingBatches").ne(batchId));
+        return mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), Destination.class);
+    }
+    
+    @Override
+    public boolean isRatingUntracked(String destinationId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("id").is(destinationId).and("ratingSum").exists(false)),
+            Destination.class);
+    }
+    
+    @Override
+    public boolean seedRatingAggregates(String destinationId, RatingDelta totals) {
+        Map<String, Integer> ratingCounts = new LinkedHashMap<>();
+        for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+            ratingCounts.put(String.valueOf(stars), totals.getStarCount(stars));
+        }
+        Query query = Query.query(Criteria.where("id").is(destinationId).and("ratingSum").exists(false));
+        Update update = new Update()
+            .set("ratingSum", totals.getSum())
+            .set("reviewCount", totals.getCount())
+            .set("ratingCounts", ratingCounts)
+            .set("rating", totals.getCount() > 0 ? (double) totals.getSum() / totals.getCount() : 0.0)
+            .currentDate("updatedAt");
+        return mongoTemplate.updateFirst(query, update, Destination.class).getModifiedCount() > 0;
+    }
+    
+    // {$add: [ifNull(field, 0), amount]}
+    private static Document plus(String field, Number amount) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of(field, 0)), amount));
+    }
+    
+    // (field > v) OR (field == v AND _id > id), with the comparison flipped for descending sorts
+    private Criteria afterCursor(DestinationSort sort, PageCursor after) {
+        boolean ascending = sort.getDirection().isAscending();
+        Criteria pastValue = ascending
+            ? Criteria.where(sort.getField()).gt(after.getValue())
+            : Criteria.where(sort.getField()).lt(after.getValue());
+        Criteria sameValue = ascending
+            ? Criteria.where(sort.getField()).is(after.getValue()).and("id").gt(after.getId())
+            : Criteria.where(sort.getField()).is(after.getValue()).and("id").lt(after.getId());
+        return new Criteria().orOperator(pastValue, sameValue);
+    }
+}
@@ -0,0 +1,16 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.entity.Review;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReviewRepositoryCustom {
+    
+    // Newest first, keyed on (createdAt, _id); minRating may be null
+    List<Review> findFeed(String destinationId, Integer minRating, PageCursor after, int limit);
+    
+    // stars -> number of reviews, computed from the index without reading review bodies
+    Map<Integer, Long> countByStars(String destinationId);
+}
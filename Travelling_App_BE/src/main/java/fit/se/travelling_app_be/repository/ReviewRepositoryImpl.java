@@ -0,0 +1,56 @@
+package fit.se.travelling_app_be.repository;
+
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.entity.Review;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<Review> findFeed(String destinationId, Integer minRating, PageCursor after, int limit) {
+        Criteria criteria = Criteria.where("destinationId").is(destinationId);
+        if (minRating != null) {
+            criteria.and("rating").gte(minRating);
+        }
+        if (after != null) {
+            // (createdAt < v) OR (createdAt == v AND _id < id)
+            criteria.orOperator(
+                Criteria.where("createdAt").lt(after.getValue()),
+                Criteria.where("createdAt").is(after.getValue()).and("id").lt(after.getId()));
+        }
+        
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+            .limit(limit);
+        return mongoTemplate.find(query, Review.class);
+    }
+    
+    @Override
+    public Map<Integer, Long> countByStars(String destinationId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("destinationId").is(destinationId)),
+            Aggregation.group("rating").count().as("count"));
+        
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Document bucket : mongoTemplate.aggregate(aggregation, Review.class, Document.class)) {
+            Number stars = bucket.get("_id", Number.class);
+            if (stars != null) {
+                counts.put(stars.intValue(), bucket.get("count", Number.class).longValue());
+            }
+        }
+        return counts;
+    }
+}
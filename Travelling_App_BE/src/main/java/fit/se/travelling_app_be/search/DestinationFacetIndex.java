@@ -0,0 +1,372 @@
+package fit.se.travelling_app_be.search;
+
+import fit.se.travelling_app_be.dto.request.DestinationFilter;
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import fit.se.travelling_app_be.dto.response.FacetedSearchResult;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory faceted index over the destination catalog.
+ * Every destination owns a slot number; categories and countries are bitsets over slots,
+ * price / rating / duration are primitive arrays kept sorted by value so a range becomes
+ * two binary searches. Filters are combined with bitwise AND.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationFacetIndex {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    
+    private final DestinationRepository destinationRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    
+    private final Map<String, Facet> categories = new HashMap<>();
+    private final Map<String, Facet> countries = new HashMap<>();
+    private final SortedColumn prices = new SortedColumn();
+    private final SortedColumn ratings = new SortedColumn();
+    private final SortedColumn durations = new SortedColumn();
+    
+    @EventListener({ApplicationReadyEvent.class, CatalogReloadedEvent.class})
+    public void rebuild() {
+        List<Destination> destinations = destinationRepository.findAll();
+        
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            entries.clear();
+            freeSlots.clear();
+            live.clear();
+            categories.clear();
+            countries.clear();
+            prices.clear();
+            ratings.clear();
+            durations.clear();
+            destinations.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index built with {} destinations", destinations.size());
+    }
+    
+    @EventListener
+    public void onDestinationChanged(DestinationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getDestinationId());
+            if (!event.isDeleted()) {
+                insert(event.getDestination());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public FacetedSearchResult search(DestinationFilter filter) {
+        long start = System.nanoTime();
+        int limit = filter.getLimit() == null || filter.getLimit() <= 0
+            ? DEFAULT_LIMIT
+            : Math.min(filter.getLimit(), MAX_LIMIT);
+        
+        lock.readLock().lock();
+        try {
+            BitSet base = rangeMatches(filter);
+            BitSet categoryMask = selection(categories, filter.getCategory());
+            BitSet countryMask = selection(countries, filter.getCountry());
+            
+            // Each facet is counted with every filter applied except its own
+            BitSet forCategoryCounts = and(base, countryMask);
+            BitSet forCountryCounts = and(base, categoryMask);
+            BitSet hits = and(forCategoryCounts, categoryMask);
+            
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("category", counts(categories, forCategoryCounts));
+            facets.put("country", counts(countries, forCountryCounts));
+            
+            List<DestinationCard> items = sortedCards(hits);
+            return new FacetedSearchResult(
+                items.size(),
+                List.copyOf(items.subList(0, Math.min(limit, items.size()))),
+                facets,
+                (System.nanoTime() - start) / 1_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Ids of every destination matching the filter, best rated first
+    public List<String> searchIds(DestinationFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = and(and(rangeMatches(filter), selection(categories, filter.getCategory())),
+                selection(countries, filter.getCountry()));
+            return sortedCards(hits).stream().map(DestinationCard::getId).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Must hold the read lock
+    private BitSet rangeMatches(DestinationFilter filter) {
+        BitSet base = (BitSet) live.clone();
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            base.and(prices.range(
+                filter.getMinPrice() != null ? filter.getMinPrice().doubleValue() : Double.NEGATIVE_INFINITY,
+                filter.getMaxPrice() != null ? filter.getMaxPrice().doubleValue() : Double.POSITIVE_INFINITY));
+        }
+        if (filter.getMinRating() != null) {
+            base.and(ratings.range(filter.getMinRating(), Double.POSITIVE_INFINITY));
+        }
+        if (filter.getMinDays() != null || filter.getMaxDays() != null) {
+            base.and(durations.range(
+                filter.getMinDays() != null ? filter.getMinDays() : Double.NEGATIVE_INFINITY,
+                filter.getMaxDays() != null ? filter.getMaxDays() : Double.POSITIVE_INFINITY));
+        }
+        return base;
+    }
+    
+    // Must hold the read lock
+    private List<DestinationCard> sortedCards(BitSet hits) {
+        List<DestinationCard> cards = new ArrayList<>(hits.cardinality());
+        for (int slot = hits.nextSetBit(0); slot >= 0; slot = hits.nextSetBit(slot + 1)) {
+            cards.add(entries.get(slot).card);
+        }
+        cards.sort(Comparator.comparing(DestinationCard::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(DestinationCard::getId));
+        return cards;
+    }
+    
+    // Must hold the write lock
+    private void insert(Destination destination) {
+        int slot = freeSlots.isEmpty() ? entries.size() : freeSlots.pop();
+        Entry entry = new Entry(destination);
+        if (slot == entries.size()) {
+            entries.add(entry);
+        } else {
+            entries.set(slot, entry);
+        }
+        slotById.put(destination.getId(), slot);
+        live.set(slot);
+        
+        if (entry.categoryKey != null) {
+            categories.computeIfAbsent(entry.categoryKey, k -> new Facet(destination.getCategory())).slots.set(slot);
+        }
+        if (entry.countryKey != null) {
+            countries.computeIfAbsent(entry.countryKey, k -> new Facet(destination.getCountry())).slots.set(slot);
+        }
+        if (entry.price != null) {
+            prices.insert(entry.price, slot);
+        }
+        if (entry.rating != null) {
+            ratings.insert(entry.rating, slot);
+        }
+        if (entry.durationDays != null) {
+            durations.insert(entry.durationDays, slot);
+        }
+    }
+    
+    // Must hold the write lock
+    private void remove(String destinationId) {
+        Integer slot = slotById.remove(destinationId);
+        if (slot == null) {
+            return;
+        }
+        Entry entry = entries.get(slot);
+        
+        live.clear(slot);
+        clearFacet(categories, entry.categoryKey, slot);
+        clearFacet(countries, entry.countryKey, slot);
+        if (entry.price != null) {
+            prices.remove(entry.price, slot);
+        }
+        if (entry.rating != null) {
+            ratings.remove(entry.rating, slot);
+        }
+        if (entry.durationDays != null) {
+            durations.remove(entry.durationDays, slot);
+        }
+        
+        entries.set(slot, null);
+        freeSlots.push(slot);
+    }
+    
+    private static void clearFacet(Map<String, Facet> facets, String key, int slot) {
+        if (key == null) {
+            return;
+        }
+        Facet facet = facets.get(key);
+        if (facet != null) {
+            facet.slots.clear(slot);
+            if (facet.slots.isEmpty()) {
+                facets.remove(key);
+            }
+        }
+    }
+    
+    // null when the filter is not set, an empty set when the value is unknown
+    private static BitSet selection(Map<String, Facet> facets, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Facet facet = facets.get(normalize(value));
+        return facet != null ? facet.slots : new BitSet();
+    }
+    
+    private static BitSet and(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        if (right != null) {
+            result.and(right);
+        }
+        return result;
+    }
+    
+    private static Map<String, Integer> counts(Map<String, Facet> facets, BitSet mask) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        facets.values().stream()
+            .sorted(Comparator.comparing(facet -> facet.label))
+            .forEach(facet -> {
+                BitSet matched = (BitSet) facet.slots.clone();
+                matched.and(mask);
+                counts.put(facet.label, matched.cardinality());
+            });
+        return counts;
+    }
+    
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static final class Entry {
+        private final DestinationCard card;
+        private final String categoryKey;
+        private final String countryKey;
+        private final Double price;
+        private final Double rating;
+        private final Double durationDays;
+        
+        private Entry(Destination destination) {
+            this.card = new DestinationCard(destination.getId(), destination.getName(), destination.getCountry(),
+                destination.getImageUrl(), destination.getRating(), destination.getReviewCount(),
+                destination.getPrice(), destination.getCategory());
+            this.categoryKey = normalize(destination.getCategory());
+            this.countryKey = normalize(destination.getCountry());
+            this.price = destination.getPrice() != null ? destination.getPrice().doubleValue() : null;
+            this.rating = destination.getRating();
+            Integer days = DurationParser.parseDays(destination.getDuration());
+            this.durationDays = days != null ? days.doubleValue() : null;
+        }
+    }
+    
+    private static final class Facet {
+        private final String label;
+        private final BitSet slots = new BitSet();
+        
+        private Facet(String label) {
+            this.label = label;
+        }
+    }
+    
+    /**
+     * Parallel primitive arrays (value, slot) ordered by value.
+     * Inserts and removals shift the tail with System.arraycopy, which is cheap at catalog sizes.
+     */
+    private static final class SortedColumn {
+        private double[] values = new double[64];
+        private int[] slots = new int[64];
+        private int size;
+        
+        void clear() {
+            size = 0;
+        }
+        
+        void insert(double value, int slot) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            int position = upperBound(value);
+            System.arraycopy(values, position, values, position + 1, size - position);
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            values[position] = value;
+            slots[position] = slot;
+            size++;
+        }
+        
+        void remove(double value, int slot) {
+            for (int i = lowerBound(value); i < size && values[i] == value; i++) {
+                if (slots[i] == slot) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+        
+        BitSet range(double min, double max) {
+            BitSet result = new BitSet();
+            for (int i = lowerBound(min), end = upperBound(max); i < end; i++) {
+                result.set(slots[i]);
+            }
+            return result;
+        }
+        
+        // First index whose value is >= target
+        private int lowerBound(double target) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        // First index whose value is > target
+        private int upperBound(double target) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
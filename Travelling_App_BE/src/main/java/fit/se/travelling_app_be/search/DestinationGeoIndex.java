@@ -0,0 +1,207 @@
+package fit.se.travelling_app_be.search;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.Location;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index over Destination.location using a fixed grid of 1° x 1° cells
+ * (the same bucketing a short geohash gives). A query only visits the cells that overlap
+ * the search area, then filters by exact great-circle distance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationGeoIndex {
+    
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int LON_CELLS = 360;
+    
+    private final DestinationRepository destinationRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, List<Point>> cells = new HashMap<>();
+    private final Map<String, Point> pointsById = new HashMap<>();
+    
+    @EventListener({ApplicationReadyEvent.class, CatalogReloadedEvent.class})
+    public void rebuild() {
+        List<Destination> destinations = destinationRepository.findAll();
+        
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            pointsById.clear();
+            destinations.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Geo index built with {} located destinations", pointsById.size());
+    }
+    
+    @EventListener
+    public void onDestinationChanged(DestinationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getDestinationId());
+            if (!event.isDeleted()) {
+                add(event.getDestination());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Destinations within radiusKm of the point, nearest first
+    public List<GeoHit> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90, latitude + latitudeSpan);
+        
+        // Longitude degrees shrink towards the poles; near a pole every longitude is in range
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double longitudeSpan = widestLatitude >= 89.9
+            ? 180
+            : radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude)));
+        
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCell(minLatitude, maxLatitude, longitude - longitudeSpan, longitude + longitudeSpan, point -> {
+                double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance <= radiusKm) {
+                    hits.add(new GeoHit(point.destinationId, point.latitude, point.longitude, distance));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return nearestFirst(hits, limit);
+    }
+    
+    // Destinations inside the box, nearest to (centerLatitude, centerLongitude) first.
+    // minLongitude > maxLongitude means the box crosses the antimeridian.
+    public List<GeoHit> within(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+                               double centerLatitude, double centerLongitude, int limit) {
+        double eastLongitude = maxLongitude < minLongitude ? maxLongitude + 360 : maxLongitude;
+        
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCell(minLatitude, maxLatitude, minLongitude, eastLongitude, point -> {
+                double pointLongitude = point.longitude < minLongitude ? point.longitude + 360 : point.longitude;
+                if (point.latitude >= minLatitude && point.latitude <= maxLatitude
+                        && pointLongitude >= minLongitude && pointLongitude <= eastLongitude) {
+                    double distance = distanceKm(centerLatitude, centerLongitude, point.latitude, point.longitude);
+                    hits.add(new GeoHit(point.destinationId, point.latitude, point.longitude, distance));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return nearestFirst(hits, limit);
+    }
+    
+    public static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double deltaLatitude = Math.toRadians(toLatitude - fromLatitude);
+        double deltaLongitude = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+            + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+            * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    // Must hold the read lock. Longitudes may run past ±180; cells wrap around.
+    private void forEachCell(double minLatitude, double maxLatitude, double westLongitude, double eastLongitude,
+                             Consumer<Point> visitor) {
+        int firstLatitudeCell = (int) Math.floor(minLatitude);
+        int lastLatitudeCell = (int) Math.floor(maxLatitude);
+        int firstLongitudeCell = (int) Math.floor(westLongitude);
+        int lastLongitudeCell = eastLongitude - westLongitude >= LON_CELLS
+            ? firstLongitudeCell + LON_CELLS - 1
+            : (int) Math.floor(eastLongitude);
+        
+        for (int latitudeCell = firstLatitudeCell; latitudeCell <= lastLatitudeCell; latitudeCell++) {
+            for (int longitudeCell = firstLongitudeCell; longitudeCell <= lastLongitudeCell; longitudeCell++) {
+                List<Point> points = cells.get(cellKey(latitudeCell, longitudeCell));
+                if (points != null) {
+                    points.forEach(visitor);
+                }
+            }
+        }
+    }
+    
+    // Must hold the write lock
+    private void add(Destination destination) {
+        Location location = destination.getLocation();
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return;
+        }
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            log.warn("Ignoring destination {} with invalid coordinates ({}, {})", destination.getId(), latitude, longitude);
+            return;
+        }
+        
+        Point point = new Point(destination.getId(), latitude, longitude);
+        pointsById.put(point.destinationId, point);
+        cells.computeIfAbsent(cellKey(point), k -> new ArrayList<>()).add(point);
+    }
+    
+    // Must hold the write lock
+    private void remove(String destinationId) {
+        Point point = pointsById.remove(destinationId);
+        if (point == null) {
+            return;
+        }
+        int key = cellKey(point);
+        List<Point> points = cells.get(key);
+        if (points != null) {
+            points.remove(point);
+            if (points.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+    
+    private static List<GeoHit> nearestFirst(List<GeoHit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceKm).thenComparing(GeoHit::getDestinationId));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+    
+    private static int cellKey(Point point) {
+        return cellKey((int) Math.floor(point.latitude), (int) Math.floor(point.longitude));
+    }
+    
+    private static int cellKey(int latitudeCell, int longitudeCell) {
+        return (latitudeCell + 90) * LON_CELLS + Math.floorMod(longitudeCell + 180, LON_CELLS);
+    }
+    
+    private static final class Point {
+        private final String destinationId;
+        private final double latitude;
+        private final double longitude;
+        
+        private Point(String destinationId, double latitude, double longitude) {
+            this.destinationId = destinationId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package fit.se.travelling_app_be.search;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accent-folded inverted index over the searchable destination fields, ranked with BM25.
+ * Term frequencies are weighted per field (a hit in the name counts more than one in the
+ * description). The last query token is also matched as a prefix so partially typed
+ * words still find results.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationSearchIndex {
+    
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CITY_WEIGHT = 2.0f;
+    private static final float COUNTRY_WEIGHT = 1.5f;
+    private static final float HIGHLIGHT_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    // Partial matches of the last token score a little lower than exact ones
+    private static final double PREFIX_PENALTY = 0.8;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    
+    private final DestinationRepository destinationRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // term -> destinationId -> field-weighted term frequency
+    private final TreeMap<String, Map<String, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByDestination = new HashMap<>();
+    private final Map<String, Float> lengthByDestination = new HashMap<>();
+    private double totalLength;
+    
+    @EventListener({ApplicationReadyEvent.class, CatalogReloadedEvent.class})
+    public void rebuild() {
+        List<Destination> destinations = destinationRepository.findAll();
+        
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByDestination.clear();
+            lengthByDestination.clear();
+            totalLength = 0;
+            destinations.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built with {} destinations and {} terms", destinations.size(), postings.size());
+    }
+    
+    @EventListener
+    public void onDestinationChanged(DestinationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getDestinationId());
+            if (!event.isDeleted()) {
+                add(event.getDestination());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // All matching destinations, best match first (ties broken by id)
+    public List<SearchHit> search(String query) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            int documentCount = lengthByDestination.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+            Map<String, Double> scores = new HashMap<>();
+            
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                boolean lastTerm = i == queryTerms.size() - 1;
+                
+                // Best score per destination across the exact term and (for the last token) its expansions
+                Map<String, Double> termScores = new HashMap<>();
+                scoreTerm(term, 1.0, documentCount, averageLength, termScores);
+                if (lastTerm) {
+                    SortedMap<String, Map<String, Float>> expansions = postings.subMap(term, term + Character.MAX_VALUE);
+                    expansions.keySet().stream()
+                        .filter(expansion -> !expansion.equals(term))
+                        .limit(MAX_PREFIX_EXPANSIONS)
+                        .forEach(expansion -> scoreTerm(expansion, PREFIX_PENALTY, documentCount, averageLength, termScores));
+                }
+                termScores.forEach((destinationId, score) -> scores.merge(destinationId, score, Double::sum));
+            }
+            
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((destinationId, score) -> hits.add(new SearchHit(destinationId, score)));
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getDestinationId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Must hold the read lock
+    private void scoreTerm(String term, double boost, int documentCount, double averageLength,
+                           Map<String, Double> termScores) {
+        Map<String, Float> posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        
+        int documentFrequency = posting.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        posting.forEach((destinationId, frequency) -> {
+            double length = lengthByDestination.getOrDefault(destinationId, 0f);
+            double normalized = frequency * (K1 + 1)
+                / (frequency + K1 * (1 - B + B * length / averageLength));
+            termScores.merge(destinationId, boost * idf * normalized, Math::max);
+        });
+    }
+    
+    // Must hold the write lock
+    private void add(Destination destination) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += addField(frequencies, destination.getName(), NAME_WEIGHT);
+        length += addField(frequencies, destination.getCountry(), COUNTRY_WEIGHT);
+        length += addField(frequencies, destination.getShortDescription(), DESCRIPTION_WEIGHT);
+        if (destination.getLocation() != null) {
+            length += addField(frequencies, destination.getLocation().getCity(), CITY_WEIGHT);
+        }
+        if (destination.getHighlights() != null) {
+            for (String highlight : destination.getHighlights()) {
+                length += addField(frequencies, highlight, HIGHLIGHT_WEIGHT);
+            }
+        }
+        
+        String destinationId = destination.getId();
+        frequencies.forEach((term, frequency) ->
+            postings.computeIfAbsent(term, k -> new HashMap<>()).put(destinationId, frequency));
+        termsByDestination.put(destinationId, frequencies.keySet());
+        lengthByDestination.put(destinationId, length);
+        totalLength += length;
+    }
+    
+    // Must hold the write lock
+    private void remove(String destinationId) {
+        Set<String> terms = termsByDestination.remove(destinationId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<String, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(destinationId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Float length = lengthByDestination.remove(destinationId);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+    
+    // Returns the weighted number of tokens added
+    private static float addField(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+}
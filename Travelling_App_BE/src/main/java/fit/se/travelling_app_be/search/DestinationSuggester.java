@@ -0,0 +1,181 @@
+package fit.se.travelling_app_be.search;
+
+import fit.se.travelling_app_be.dto.response.Suggestion;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
+import fit.se.travelling_app_be.repository.DestinationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over destination names, cities and countries.
+ * Readers only dereference the current immutable trie; rebuilds run on a background
+ * thread and swap the reference when done. The catalog is loaded from Mongo only on startup
+ * and catalog reloads; single destination changes (rating flushes included) update an
+ * in-memory copy, and the trie is rebuilt from it at most once per rebuild-delay.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationSuggester {
+    
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    private final DestinationRepository destinationRepository;
+    
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-trie-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    
+    private final ConcurrentHashMap<String, Destination> destinations = new ConcurrentHashMap<>();
+    
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+    
+    @Value("${app.search.suggest.rebuild-delay:PT5S}")
+    private Duration rebuildDelay;
+    
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        int size = limit == null || limit <= 0 ? MAX_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+        String key = String.join(" ", TextNormalizer.tokenize(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        // Keep the trailing space of "da " so only whole-word continuations match
+        if (Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+            key = key + " ";
+        }
+        return trie.lookup(key, size);
+    }
+    
+    @EventListener({ApplicationReadyEvent.class, CatalogReloadedEvent.class})
+    public void onCatalogLoaded() {
+        rebuildExecutor.execute(this::reload);
+    }
+    
+    @EventListener
+    public void onDestinationChanged(DestinationChangedEvent event) {
+        if (event.isDeleted()) {
+            destinations.remove(event.getDestinationId());
+        } else {
+            destinations.put(event.getDestinationId(), event.getDestination());
+        }
+        requestRebuild();
+    }
+    
+    // Changes that arrive before the delayed rebuild runs are picked up by it
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(this::rebuild, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    private void reload() {
+        try {
+            Map<String, Destination> loaded = new HashMap<>();
+            destinationRepository.findAll().forEach(destination -> loaded.put(destination.getId(), destination));
+            destinations.keySet().retainAll(loaded.keySet());
+            destinations.putAll(loaded);
+        } catch (Exception e) {
+            log.error("❌ Error loading destinations for suggestions: {}", e.getMessage());
+            return;
+        }
+        rebuild();
+    }
+    
+    private void rebuild() {
+        // Cleared before building so changes that land during the build schedule another one
+        rebuildPending.set(false);
+        try {
+            long start = System.currentTimeMillis();
+            SuggestionTrie rebuilt = build(List.copyOf(destinations.values()));
+            trie = rebuilt;
+            log.info("Suggestion trie rebuilt with {} entries in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("❌ Error rebuilding suggestion trie: {}", e.getMessage());
+        }
+    }
+    
+    private SuggestionTrie build(List<Destination> destinations) {
+        SuggestionTrie.Builder builder = new SuggestionTrie.Builder(MAX_SUGGESTIONS);
+        Map<String, Place> cities = new HashMap<>();
+        Map<String, Place> countries = new HashMap<>();
+        
+        for (Destination destination : destinations) {
+            double weight = weightOf(destination);
+            if (destination.getName() != null) {
+                int id = builder.addSuggestion(
+                    new Suggestion(destination.getName(), "destination", destination.getId()), weight);
+                addKeys(builder, destination.getName(), id);
+            }
+            if (destination.getLocation() != null) {
+                collect(cities, destination.getLocation().getCity(), weight);
+            }
+            collect(countries, destination.getCountry(), weight);
+        }
+        
+        // A city or country is as relevant as its best destination
+        cities.values().forEach(place -> addPlace(builder, place, "city"));
+        countries.values().forEach(place -> addPlace(builder, place, "country"));
+        
+        return builder.build();
+    }
+    
+    private static void addPlace(SuggestionTrie.Builder builder, Place place, String type) {
+        int id = builder.addSuggestion(new Suggestion(place.label(), type, null), place.weight());
+        addKeys(builder, place.label(), id);
+    }
+    
+    // Index the full text and every word start, so "nang" also finds "Da Nang"
+    private static void addKeys(SuggestionTrie.Builder builder, String text, int suggestionId) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            builder.addKey(String.join(" ", tokens.subList(i, tokens.size())), suggestionId);
+        }
+    }
+    
+    private static void collect(Map<String, Place> places, String label, double weight) {
+        if (label == null || label.isBlank()) {
+            return;
+        }
+        places.merge(TextNormalizer.fold(label.trim()), new Place(label.trim(), weight),
+            (existing, candidate) -> existing.weight() >= candidate.weight() ? existing : candidate);
+    }
+    
+    private static double weightOf(Destination destination) {
+        double rating = destination.getRating() != null ? destination.getRating() : 0;
+        int reviewCount = destination.getReviewCount() != null ? destination.getReviewCount() : 0;
+        double weight = 1 + rating * Math.log1p(reviewCount);
+        if (Boolean.TRUE.equals(destination.getPopular())) {
+            weight *= 1.5;
+        }
+        return weight;
+    }
+    
+    private record Place(String label, double weight) {
+    }
+}
@@ -0,0 +1,32 @@
+package fit.se.travelling_app_be.search;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Turns the free-text Destination.duration ("5 days", "7 ngày", "2 weeks", "4D3N") into a number of days
+public final class DurationParser {
+    
+    private static final Pattern DURATION = Pattern.compile(
+        "(\\d+)\\s*(weeks?|tuần|days?|ngày|d)?", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    
+    private DurationParser() {
+    }
+    
+    public static Integer parseDays(String duration) {
+        if (duration == null || duration.isBlank()) {
+            return null;
+        }
+        
+        Matcher matcher = DURATION.matcher(duration);
+        if (!matcher.find()) {
+            return null;
+        }
+        
+        int amount = Integer.parseInt(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit != null && (unit.toLowerCase().startsWith("week") || unit.equalsIgnoreCase("tuần"))) {
+            return amount * 7;
+        }
+        return amount;
+    }
+}
@@ -0,0 +1,13 @@
+package fit.se.travelling_app_be.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GeoHit {
+    private String destinationId;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+}
@@ -0,0 +1,11 @@
+package fit.se.travelling_app_be.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SearchHit {
+    private String destinationId;
+    private double score;
+}
@@ -0,0 +1,131 @@
+package fit.se.travelling_app_be.search;
+
+import fit.se.travelling_app_be.dto.response.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie over accent-folded keys. Every node stores the ids of its best
+ * suggestions (by weight) so a lookup is a walk down the prefix and a copy of that list,
+ * independent of how many entries share the prefix.
+ */
+final class SuggestionTrie {
+    
+    static final SuggestionTrie EMPTY = new Builder(1).build();
+    
+    private final Suggestion[] suggestions;
+    private final Node root;
+    
+    private SuggestionTrie(Suggestion[] suggestions, Node root) {
+        this.suggestions = suggestions;
+        this.root = root;
+    }
+    
+    List<Suggestion> lookup(String foldedPrefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < foldedPrefix.length() && node != null; i++) {
+            node = node.child(foldedPrefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        
+        int count = Math.min(limit, node.top.length);
+        List<Suggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(suggestions[node.top[i]]);
+        }
+        return result;
+    }
+    
+    int size() {
+        return suggestions.length;
+    }
+    
+    private static final class Node {
+        private final char[] labels; // sorted, for binary search
+        private final Node[] children;
+        private final int[] top; // suggestion ids, best first
+        
+        private Node(char[] labels, Node[] children, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+        
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+    
+    static final class Builder {
+        private final int topSize;
+        private final List<Suggestion> suggestions = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+        private final MutableNode root = new MutableNode();
+        
+        Builder(int topSize) {
+            this.topSize = topSize;
+        }
+        
+        int addSuggestion(Suggestion suggestion, double weight) {
+            suggestions.add(suggestion);
+            weights.add(weight);
+            return suggestions.size() - 1;
+        }
+        
+        // Registers the suggestion under every prefix of the folded key
+        void addKey(String foldedKey, int suggestionId) {
+            MutableNode node = root;
+            offer(node, suggestionId);
+            for (int i = 0; i < foldedKey.length(); i++) {
+                node = node.children.computeIfAbsent(foldedKey.charAt(i), c -> new MutableNode());
+                offer(node, suggestionId);
+            }
+        }
+        
+        SuggestionTrie build() {
+            return new SuggestionTrie(suggestions.toArray(new Suggestion[0]), freeze(root));
+        }
+        
+        // Keeps node.top sorted by weight (desc) and capped at topSize, without duplicates
+        private void offer(MutableNode node, int suggestionId) {
+            if (node.top.contains(suggestionId)) {
+                return;
+            }
+            double weight = weights.get(suggestionId);
+            int position = 0;
+            while (position < node.top.size() && weights.get(node.top.get(position)) >= weight) {
+                position++;
+            }
+            if (position < topSize) {
+                node.top.add(position, suggestionId);
+                if (node.top.size() > topSize) {
+                    node.top.remove(node.top.size() - 1);
+                }
+            }
+        }
+        
+        private Node freeze(MutableNode node) {
+            char[] labels = new char[node.children.size()];
+            Node[] children = new Node[node.children.size()];
+            int i = 0;
+            for (var entry : node.children.entrySet()) {
+                labels[i] = entry.getKey();
+                children[i] = freeze(entry.getValue());
+                i++;
+            }
+            int[] top = node.top.stream().mapToInt(Integer::intValue).toArray();
+            return new Node(labels, children, top);
+        }
+    }
+    
+    private static final class MutableNode {
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private final List<Integer> top = new ArrayList<>(4);
+    }
+}
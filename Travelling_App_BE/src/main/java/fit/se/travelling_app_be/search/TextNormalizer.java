@@ -0,0 +1,40 @@
+package fit.se.travelling_app_be.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Accent folding and tokenization shared by the search indexes,
+ * so "Đà Nẵng", "da nang" and "DA NANG" all produce the tokens [da, nang].
+ */
+public final class TextNormalizer {
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private TextNormalizer() {
+    }
+    
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        // đ/Đ is a separate letter, not d + combining mark, so NFD leaves it alone
+        String withoutStroke = text.replace('đ', 'd').replace('Đ', 'D');
+        String decomposed = Normalizer.normalize(withoutStroke, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,133 @@
+package fit.se.travelling_app_be.service;
+
+import fit.se.travelling_app_be.cluster.PartitionLeaseManager;
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.outbox.BookingOutboxDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves CONFIRMED bookings whose travel date has passed to COMPLETED. The backlog is walked in
+ * travel-date windows over the (status, travelDate) index, with one updateMulti per window that
+ * also queues a BOOKING_STATUS_CHANGED event on every booking it completes (the review prompt
+ * is sent from there). Trips older than the prompt window are completed without the event, so
+ * the first run does not prompt for the whole booking history. Only the node holding the job's
+ * single lease partition runs it and checks its fencing token before every window, so a node
+ * that lost the lease stops; the status filter keeps an overlapping window from completing
+ * anything twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingCompletionService {
+    
+    private static final int PARTITION = 0;
+    
+    private final MongoTemplate mongoTemplate;
+    private final PartitionLeaseManager bookingCompletionLeases;
+    private final BookingOutboxDispatcher outboxDispatcher;
+    
+    @Value("${app.booking-completion.window:P1D}")
+    private Duration window;
+    
+    // Only bookings that travelled this recently get a review prompt
+    @Value("${app.booking-completion.prompt-window:P7D}")
+    private Duration promptWindow;
+    
+    @Scheduled(initialDelayString = "${app.booking-completion.initial-delay:PT30S}",
+        fixedDelayString = "${app.booking-completion.interval:PT15M}")
+    public void completeTravelledBookings() {
+        Long token = bookingCompletionLeases.ownedPartitions().get(PARTITION);
+        if (token == null) {
+            return;
+        }
+        try {
+            long completed = completeBefore(LocalDateTime.now(), token);
+            if (completed > 0) {
+                log.info("Completed {} bookings whose travel date has passed", completed);
+                outboxDispatcher.wakeUp();
+            }
+        } catch (Exception e) {
+            log.error("❌ Error completing travelled bookings: {}", e.getMessage());
+        }
+    }
+    
+    private long completeBefore(LocalDateTime cutoff, long token) {
+        String batchId = new ObjectId().toHexString();
+        LocalDateTime promptFrom = cutoff.minus(promptWindow);
+        long completed = 0;
+        LocalDateTime windowStart = oldestConfirmedTravelDate();
+        while (windowStart != null && windowStart.isBefore(cutoff)) {
+            if (!bookingCompletionLeases.fence(PARTITION, token)) {
+                log.warn("Lost the booking completion lease, stopping after {} bookings", completed);
+                break;
+            }
+            LocalDateTime windowEnd = windowStart.plus(window);
+            if (windowEnd.isAfter(cutoff)) {
+                windowEnd = cutoff;
+            }
+            // Trips older than the prompt window (the historical backlog) are completed without an event
+            boolean recent = !windowStart.isBefore(promptFrom);
+            if (!recent && windowEnd.isAfter(promptFrom)) {
+                windowEnd = promptFrom;
+            }
+            Query query = Query.query(Criteria.where("status").is(BookingStatus.CONFIRMED.name())
+                .and("travelDate").gte(windowStart).lt(windowEnd));
+            UpdateDefinition update = recent
+                ? completion(batchId)
+                : new Update().set("status", BookingStatus.COMPLETED.name()).currentDate("updatedAt");
+            completed += mongoTemplate.updateMulti(query, update, Booking.class).getModifiedCount();
+            windowStart = windowEnd;
+        }
+        return completed;
+    }
+    
+    private LocalDateTime oldestConfirmedTravelDate() {
+        Query query = Query.query(Criteria.where("status").is(BookingStatus.CONFIRMED.name())
+                .and("travelDate").ne(null))
+            .with(Sort.by("travelDate"))
+            .limit(1);
+        query.fields().include("travelDate");
+        Booking oldest = mongoTemplate.findOne(query, Booking.class);
+        return oldest != null ? oldest.getTravelDate() : null;
+    }
+    
+    // Pipeline update so each booking gets its own event id (batchId:bookingId) in the same write
+    private static AggregationUpdate completion(String batchId) {
+        Date now = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+        Document event = new Document()
+            .append("eventId", new Document("$concat", List.of(batchId + ":", new Document("$toString", "$_id"))))
+            .append("type", OutboxEvent.BOOKING_STATUS_CHANGED)
+            .append("payload", new Document("status", BookingStatus.COMPLETED.name()))
+            .append("attempts", 0)
+            .append("createdAt", now)
+            .append("nextAttemptAt", now);
+        Document set = new Document()
+            .append("status", BookingStatus.COMPLETED.name())
+            .append("updatedAt", now)
+            .append("outbox", new Document("$concatArrays", List.of(
+                new Document("$ifNull", List.of("$outbox", List.of())), List.of(event))))
+            .append("outboxDueAt", new Document("$ifNull", List.of("$outboxDueAt", now)));
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+}
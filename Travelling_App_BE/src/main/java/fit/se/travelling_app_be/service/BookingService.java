@@ -1,12 +1,27 @@
 package fit.se.travelling_app_be.service;
 
+import fit.se.travelling_app_be.cluster.Partitioning;
+import fit.se.travelling_app_be.dto.request.BookingSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.BookingListItem;
+import fit.se.travelling_app_be.dto.response.PageResponse;
 import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.entity.PaymentStatus;
+import fit.se.travelling_app_be.entity.SeatHold;
+import fit.se.travelling_app_be.exception.IllegalTransitionException;
+import fit.se.travelling_app_be.exception.SoldOutException;
+import fit.se.travelling_app_be.outbox.BookingOutboxDispatcher;
 import fit.se.travelling_app_be.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,37 +29,46 @@ import java.util.Optional;
 public class BookingService {
     
     private final BookingRepository bookingRepository;
-    private final NotificationService notificationService;
+    private final InventoryService inventoryService;
+    private final BookingOutboxDispatcher outboxDispatcher;
     
+    // Throws SoldOutException when the departure has fewer seats left than travelers
     public Booking createBooking(Booking booking) {
         // Set default values
         // If payment method is provided and booking is created, mark as CONFIRMED
         // In real app, this should be done after payment gateway confirmation
         if (booking.getPaymentMethod() != null && !booking.getPaymentMethod().isEmpty()) {
-            booking.setStatus("CONFIRMED");
-            booking.setPaymentStatus("PAID");
+            booking.setStatus(BookingStatus.CONFIRMED.name());
+            booking.setPaymentStatus(PaymentStatus.PAID.name());
         } else {
-            booking.setStatus("PENDING");
-            booking.setPaymentStatus("PENDING");
+            booking.setStatus(BookingStatus.PENDING.name());
+            booking.setPaymentStatus(PaymentStatus.PENDING.name());
         }
         booking.setBookingDate(LocalDateTime.now());
+        booking.setShard(Partitioning.shardOf(booking));
         
-        Booking savedBooking = bookingRepository.save(booking);
-        
-        // Create notification for the user
-        String destinationName = "Unknown Destination";
-        if (booking.getDestination() != null && booking.getDestination().getName() != null) {
-            destinationName = booking.getDestination().getName();
+        // Seats are taken before the booking exists; a failed save hands them straight back
+        int seats = booking.getNumberOfTravelers() != null ? booking.getNumberOfTravelers() : 1;
+        SeatHold hold = inventoryService.reserve(booking.getDestination().getId(),
+            booking.getTravelDate().toLocalDate(), seats, booking.getUserId());
+        booking.addOutboxEvent(OutboxEvent.of(OutboxEvent.BOOKING_CREATED, Map.of("status", booking.getStatus())));
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            inventoryService.releaseHold(hold.getId());
+            throw e;
+        }
+        boolean confirmed = BookingStatus.CONFIRMED.name().equals(savedBooking.getStatus());
+        if (!inventoryService.attach(hold.getId(), savedBooking.getId(), confirmed)) {
+            // The hold expired before the booking was saved and its seats may be gone
+            transition(savedBooking.getId(), "status", BookingStatus.CANCELLED.name(),
+                BookingStatus.CANCELLED.sources(), OutboxEvent.BOOKING_STATUS_CHANGED);
+            throw new SoldOutException("Seat hold expired before the booking was saved");
         }
         
-        String status = savedBooking.getStatus().equals("CONFIRMED") ? "đã xác nhận" : "đang chờ xử lý";
-        notificationService.createNotification(
-            booking.getUserId(),
-            "Đặt chỗ thành công!",
-            "Chuyến đi đến " + destinationName + " của bạn " + status + ".",
-            "booking",
-            savedBooking.getId()
-        );
+        // The notification goes out from the outbox, off the request thread
+        outboxDispatcher.wakeUp();
         
         return savedBooking;
     }
@@ -53,6 +77,34 @@ public class BookingService {
         return bookingRepository.findByUserId(userId);
     }
     
+    public PageResponse<BookingListItem> getBookingPage(String userId, List<String> statuses, LocalDateTime from,
+                                                        LocalDateTime to, String sortParam, String cursor,
+                                                        Integer limit) {
+        BookingSort sort = BookingSort.fromParam(sortParam);
+        PageCursor after = cursor != null && !cursor.isBlank() ? PageCursor.decode(cursor, sort.name()) : null;
+        if (after != null && after.getValue() != null && !(after.getValue() instanceof Date)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int pageSize = limit == null || limit <= 0
+            ? DestinationService.DEFAULT_PAGE_SIZE
+            : Math.min(limit, DestinationService.MAX_PAGE_SIZE);
+        
+        // Fetch one extra booking to know whether another page exists
+        List<BookingListItem> bookings = bookingRepository.findPage(userId, statuses, from, to, sort, after,
+            pageSize + 1);
+        if (bookings.size() <= pageSize) {
+            return PageResponse.of(bookings, null);
+        }
+        
+        List<BookingListItem> page = bookings.subList(0, pageSize);
+        BookingListItem last = page.get(pageSize - 1);
+        Date travelDate = last.getTravelDate() != null
+            ? Date.from(last.getTravelDate().atZone(ZoneId.systemDefault()).toInstant())
+            : null;
+        String nextCursor = new PageCursor(sort.name(), travelDate, last.getId()).encode();
+        return PageResponse.of(List.copyOf(page), nextCursor);
+    }
+    
     public List<Booking> getActiveBookingsByUserId(String userId) {
         return bookingRepository.findActiveBookingsByUserId(userId);
     }
@@ -70,30 +122,57 @@ public class BookingService {
     }
     
     public Booking updateBookingStatus(String id, String status) {
-        Booking booking = bookingRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        booking.setStatus(status);
-        return bookingRepository.save(booking);
+        BookingStatus target = BookingStatus.fromParam(status);
+        // Seats are confirmed first, so a booking is never CONFIRMED while its seats are back in inventory
+        boolean seatsConfirmed = target == BookingStatus.CONFIRMED && inventoryService.confirm(id);
+        Booking updated;
+        try {
+            updated = transition(id, "status", target.name(), target.sources(), OutboxEvent.BOOKING_STATUS_CHANGED);
+        } catch (RuntimeException e) {
+            if (seatsConfirmed) {
+                inventoryService.release(id);
+            }
+            throw e;
+        }
+        if (target == BookingStatus.CANCELLED) {
+            inventoryService.release(id);
+        }
+        return updated;
     }
     
     public Booking updatePaymentStatus(String id, String paymentStatus) {
-        Booking booking = bookingRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        booking.setPaymentStatus(paymentStatus);
-        return bookingRepository.save(booking);
+        PaymentStatus target = PaymentStatus.fromParam(paymentStatus);
+        return transition(id, "paymentStatus", target.name(), target.sources(), OutboxEvent.PAYMENT_STATUS_CHANGED);
     }
     
     public void cancelBooking(String id) {
-        Booking booking = bookingRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        booking.setStatus("CANCELLED");
-        bookingRepository.save(booking);
+        updateBookingStatus(id, BookingStatus.CANCELLED.name());
     }
     
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
+    
+    /**
+     * Moves field to target in one findAndModify that only matches while the field still holds one
+     * of the allowed source values, and queues the matching outbox event in the same write. A
+     * concurrent change that got there first makes the filter miss, so nothing is overwritten.
+     * Repeating a change the booking already went through returns it unchanged.
+     */
+    private Booking transition(String id, String field, String target, List<String> sources, String eventType) {
+        Booking updated = bookingRepository.transition(id, field, target, sources,
+            OutboxEvent.of(eventType, Map.of(field, target)));
+        if (updated != null) {
+            outboxDispatcher.wakeUp();
+            return updated;
+        }
+        
+        Booking current = bookingRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Booking not found"));
+        String currentValue = "status".equals(field) ? current.getStatus() : current.getPaymentStatus();
+        if (target.equals(currentValue)) {
+            return current;
+        }
+        throw new IllegalTransitionException("Cannot change " + field + " from " + currentValue + " to " + target);
+    }
 }
@@ -0,0 +1,248 @@
+package fit.se.travelling_app_be.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import fit.se.travelling_app_be.dto.response.ImportReport;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.Location;
+import fit.se.travelling_app_be.event.CatalogReloadedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a destination catalog (a JSON array or newline-delimited JSON objects) into Mongo.
+ * Records are parsed one at a time, validated, deduplicated on (name, country) within a batch
+ * and upserted with unordered bulk writes, so memory stays bounded by the batch size.
+ * Ratings and review counts from the file only apply to new destinations; existing ones keep
+ * the values derived from their reviews.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportService {
+    
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.catalog.import.batch-size:1000}")
+    private int batchSize;
+    
+    public ImportReport importCatalog(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return importCatalog(input, file.toString());
+        }
+    }
+    
+    // Sources whose name ends in .gz are decompressed on the fly
+    public ImportReport importCatalog(InputStream input, String source) throws IOException {
+        InputStream buffered = new BufferedInputStream(input, READ_BUFFER_SIZE);
+        boolean gzipped = source != null && source.endsWith(".gz");
+        return parse(gzipped ? new GZIPInputStream(buffered, READ_BUFFER_SIZE) : buffered, source);
+    }
+    
+    private ImportReport parse(InputStream input, String source) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        report.setSource(source);
+        Map<String, Destination> batch = new LinkedHashMap<>();
+        
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a destination object at line "
+                        + parser.currentLocation().getLineNr());
+                }
+                JsonNode record = parser.readValueAsTree();
+                report.setRead(report.getRead() + 1);
+                accept(record, report, batch);
+                if (batch.size() >= batchSize) {
+                    flush(batch, report);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // Batches written so far stay written; the report in the log says how far we got
+            log.error("❌ Catalog {} is malformed after {} records: {}", source, report.getRead(), e.getOriginalMessage());
+            IllegalArgumentException malformed = new IllegalArgumentException("Malformed catalog after "
+                + report.getRead() + " records: " + e.getOriginalMessage(), e);
+            finishAfterFailure(batch, report, start, malformed);
+            throw malformed;
+        } catch (IOException | RuntimeException e) {
+            finishAfterFailure(batch, report, start, e);
+            throw e;
+        }
+        flush(batch, report);
+        finish(report, start);
+        return report;
+    }
+    
+    // Still writes the records parsed before the failure; anything failing here is attached to the original error
+    private void finishAfterFailure(Map<String, Destination> batch, ImportReport report, long start, Exception failure) {
+        try {
+            flush(batch, report);
+        } catch (RuntimeException e) {
+            log.error("❌ Error writing the last catalog batch of {}: {}", report.getSource(), e.getMessage());
+            failure.addSuppressed(e);
+        }
+        try {
+            finish(report, start);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+    
+    private void accept(JsonNode record, ImportReport report, Map<String, Destination> batch) {
+        Destination destination;
+        try {
+            destination = objectMapper.treeToValue(record, Destination.class);
+        } catch (JsonProcessingException e) {
+            reject(report, "record " + report.getRead() + ": " + e.getOriginalMessage());
+            return;
+        }
+        
+        String error = validate(destination);
+        if (error != null) {
+            reject(report, "record " + report.getRead() + " (" + destination.getName() + "): " + error);
+            return;
+        }
+        
+        destination.setName(destination.getName().trim());
+        destination.setCountry(destination.getCountry().trim());
+        if (destination.getImageUrl() == null && destination.getImages() != null && !destination.getImages().isEmpty()) {
+            destination.setImageUrl(destination.getImages().get(0));
+        }
+        if (batch.put(destination.getName() + "\u0000" + destination.getCountry(), destination) != null) {
+            report.setDuplicates(report.getDuplicates() + 1);
+        }
+    }
+    
+    private static String validate(Destination destination) {
+        if (destination.getName() == null || destination.getName().isBlank()) {
+            return "name is required";
+        }
+        if (destination.getCountry() == null || destination.getCountry().isBlank()) {
+            return "country is required";
+        }
+        if (destination.getPrice() != null && destination.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "price must not be negative";
+        }
+        if (destination.getRating() != null && (destination.getRating() < 0 || destination.getRating() > 5)) {
+            return "rating must be between 0 and 5";
+        }
+        if (destination.getReviewCount() != null && destination.getReviewCount() < 0) {
+            return "reviewCount must not be negative";
+        }
+        Location location = destination.getLocation();
+        if (location != null && location.getLatitude() != null && Math.abs(location.getLatitude()) > 90) {
+            return "latitude out of range";
+        }
+        if (location != null && location.getLongitude() != null && Math.abs(location.getLongitude()) > 180) {
+            return "longitude out of range";
+        }
+        return null;
+    }
+    
+    private void flush(Map<String, Destination> batch, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Destination.class);
+        for (Destination destination : batch.values()) {
+            Query query = Query.query(Criteria.where("name").is(destination.getName())
+                .and("country").is(destination.getCountry()));
+            bulk.upsert(query, toUpdate(destination, now));
+        }
+        
+        try {
+            count(bulk.execute(), report);
+        } catch (BulkOperationException e) {
+            // Unordered: the other writes of the batch still went through
+            count(e.getResult(), report);
+            e.getErrors().forEach(error -> reject(report, "write failed: " + error.getMessage()));
+        }
+        report.setBatches(report.getBatches() + 1);
+        batch.clear();
+    }
+    
+    private Update toUpdate(Destination destination, LocalDateTime now) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(destination, document);
+        document.remove("_id");
+        document.remove("createdAt");
+        document.remove("updatedAt");
+        Object rating = document.remove("rating");
+        Object reviewCount = document.remove("reviewCount");
+        // Maintained from reviews only
+        document.remove("ratingSum");
+        document.remove("ratingCounts");
+        
+        Update update = new Update();
+        document.forEach(update::set);
+        update.setOnInsert("rating", rating);
+        update.setOnInsert("reviewCount", reviewCount);
+        update.setOnInsert("createdAt", now);
+        update.set("updatedAt", now);
+        return update;
+    }
+    
+    private static void count(BulkWriteResult result, ImportReport report) {
+        report.setInserted(report.getInserted() + result.getUpserts().size());
+        report.setUpdated(report.getUpdated() + result.getMatchedCount());
+    }
+    
+    private static void reject(ImportReport report, String error) {
+        report.setInvalid(report.getInvalid() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(error);
+        }
+    }
+    
+    private void finish(ImportReport report, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRecordsPerSecond(elapsedNanos > 0 ? report.getRead() * 1e9 / elapsedNanos : 0);
+        log.info("Imported catalog {}: read={} inserted={} updated={} duplicates={} invalid={} in {} ms ({} records/s)",
+            report.getSource(), report.getRead(), report.getInserted(), report.getUpdated(), report.getDuplicates(),
+            report.getInvalid(), report.getElapsedMillis(), Math.round(report.getRecordsPerSecond()));
+        
+        long upserted = report.getInserted() + report.getUpdated();
+        if (upserted > 0) {
+            eventPublisher.publishEvent(new CatalogReloadedEvent(upserted));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package fit.se.travelling_app_be.service;
+
+import fit.se.travelling_app_be.dto.response.DestinationDetail;
+import fit.se.travelling_app_be.dto.response.PageResponse;
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.Review;
+import fit.se.travelling_app_be.repository.FavoriteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the destination page in one call. The lookups are independent, so each runs on its
+ * own virtual thread and the response waits for the slowest one rather than their sum.
+ * A branch that fails or exceeds the branch timeout is reported in failedSections instead of
+ * failing the whole request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationDetailService {
+    
+    public static final String DESTINATION = "destination";
+    public static final String REVIEWS = "reviews";
+    public static final String FAVORITE = "favorite";
+    public static final String USER_REVIEW = "userReview";
+    
+    private final DestinationService destinationService;
+    private final ReviewService reviewService;
+    private final FavoriteRepository favoriteRepository;
+    
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("destination-detail-", 0).factory());
+    
+    @Value("${app.destination-detail.branch-timeout:800ms}")
+    private Duration branchTimeout;
+    
+    public DestinationDetail getDetail(String destinationId, String userId) {
+        long start = System.nanoTime();
+        boolean withUser = userId != null && !userId.isBlank();
+        
+        // Fork every branch before joining any of them
+        CompletableFuture<Optional<Destination>> destination = fork(() -> destinationService.findById(destinationId));
+        CompletableFuture<PageResponse<Review>> reviews =
+            fork(() -> reviewService.getReviewFeed(destinationId, null, null, null));
+        CompletableFuture<Boolean> favorite = withUser
+            ? fork(() -> favoriteRepository.existsByUserIdAndDestinationId(userId, destinationId))
+            : CompletableFuture.completedFuture(null);
+        CompletableFuture<Optional<Review>> userReview = withUser
+            ? fork(() -> reviewService.findReviewByUserAndDestination(userId, destinationId))
+            : CompletableFuture.completedFuture(Optional.empty());
+        
+        DestinationDetail detail = new DestinationDetail();
+        Optional<Destination> foundDestination = join(DESTINATION, destination, detail);
+        detail.setDestination(foundDestination != null ? foundDestination.orElse(null) : null);
+        detail.setReviews(join(REVIEWS, reviews, detail));
+        detail.setFavorite(join(FAVORITE, favorite, detail));
+        Optional<Review> foundReview = join(USER_REVIEW, userReview, detail);
+        detail.setUserReview(foundReview != null ? foundReview.orElse(null) : null);
+        detail.setTookMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        if (detail.isPartial()) {
+            log.warn("Partial detail for destination {}: failed sections {}", destinationId, detail.getFailedSections());
+        }
+        return detail;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // The timeout starts when the branch is forked, so all branches share roughly the same deadline
+    private <T> CompletableFuture<T> fork(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor)
+            .orTimeout(branchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private static <T> T join(String section, CompletableFuture<T> branch, DestinationDetail detail) {
+        try {
+            return branch.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("❌ Detail section {} failed: {}", section,
+                cause instanceof TimeoutException ? "timed out" : cause.getMessage());
+            detail.getFailedSections().add(section);
+            return null;
+        }
+    }
+}
@@ -1,40 +1,76 @@
 package fit.se.travelling_app_be.service;
 
+import fit.se.travelling_app_be.config.CacheConfig;
+import fit.se.travelling_app_be.dto.request.DestinationFilter;
+import fit.se.travelling_app_be.dto.request.DestinationSort;
+import fit.se.travelling_app_be.dto.request.PageCursor;
+import fit.se.travelling_app_be.dto.response.DestinationCard;
+import fit.se.travelling_app_be.dto.response.FacetedSearchResult;
+import fit.se.travelling_app_be.dto.response.NearbyDestination;
+import fit.se.travelling_app_be.dto.response.PageResponse;
 import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.event.DestinationChangedEvent;
 import fit.se.travelling_app_be.repository.DestinationRepository;
+import fit.se.travelling_app_be.search.DestinationFacetIndex;
+import fit.se.travelling_app_be.search.DestinationGeoIndex;
+import fit.se.travelling_app_be.search.DestinationSearchIndex;
+import fit.se.travelling_app_be.search.GeoHit;
+import fit.se.travelling_app_be.search.SearchHit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class DestinationService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String RELEVANCE_SORT_KEY = "RELEVANCE";
+    
     private final DestinationRepository destinationRepository;
+    private final DestinationFacetIndex facetIndex;
+    private final DestinationSearchIndex searchIndex;
+    private final DestinationGeoIndex geoIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<Destination> getAllDestinations() {
         return destinationRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.DESTINATIONS, key = "#id", unless = "#result == null")
     public Optional<Destination> findById(String id) {
         return destinationRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.DESTINATION_LISTS, key = "'featured'")
     public List<Destination> getFeaturedDestinations() {
         return destinationRepository.findByFeaturedTrue();
     }
     
+    @Cacheable(cacheNames = CacheConfig.DESTINATION_LISTS, key = "'popular'")
     public List<Destination> getPopularDestinations() {
         return destinationRepository.findByPopularTrue();
     }
     
     public List<Destination> searchDestinations(String query) {
-        return destinationRepository.findByNameContainingIgnoreCase(query);
+        List<String> ids = searchIndex.search(query).stream()
+            .map(SearchHit::getDestinationId)
+            .toList();
+        return findAllInOrder(ids);
     }
     
+    @Cacheable(cacheNames = CacheConfig.DESTINATION_LISTS, key = "'category:' + #category")
     public List<Destination> getDestinationsByCategory(String category) {
         return destinationRepository.findByCategory(category);
     }
@@ -53,16 +89,69 @@ public class DestinationService {
     
     public List<Destination> getDestinationsWithFilters(String category, BigDecimal minPrice, 
                                                        BigDecimal maxPrice, Double minRating) {
-        if (category != null && minPrice != null && maxPrice != null && minRating != null) {
-            return destinationRepository.findByCategoryAndPriceRangeAndRating(category, minPrice, maxPrice, minRating);
+        DestinationFilter filter = new DestinationFilter();
+        filter.setCategory(category);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setMinRating(minRating);
+        
+        // Any subset of filters is resolved by the in-memory index, then loaded in ranked order
+        return findAllInOrder(facetIndex.searchIds(filter));
+    }
+    
+    public FacetedSearchResult filterDestinations(DestinationFilter filter) {
+        return facetIndex.search(filter);
+    }
+    
+    public List<NearbyDestination> findNearby(double latitude, double longitude, double radiusKm, Integer limit) {
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+        if (radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        return toNearbyDestinations(geoIndex.nearby(latitude, longitude, radiusKm, normalizePageSize(limit)));
+    }
+    
+    // bbox is "minLon,minLat,maxLon,maxLat"; results are ordered by distance from the box center
+    public List<NearbyDestination> findWithin(String bbox, Integer limit) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double[] values = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must contain numbers");
+        }
+        double minLongitude = values[0];
+        double minLatitude = values[1];
+        double maxLongitude = values[2];
+        double maxLatitude = values[3];
+        if (Math.abs(minLatitude) > 90 || Math.abs(maxLatitude) > 90 || minLatitude > maxLatitude
+                || Math.abs(minLongitude) > 180 || Math.abs(maxLongitude) > 180) {
+            throw new IllegalArgumentException("bbox out of range");
         }
         
-        // Fallback to simple queries if not all filters are provided
-        return destinationRepository.findAll();
+        // A box whose west edge is east of its east edge crosses the antimeridian
+        double span = maxLongitude >= minLongitude ? maxLongitude - minLongitude : maxLongitude + 360 - minLongitude;
+        double centerLongitude = minLongitude + span / 2;
+        if (centerLongitude > 180) {
+            centerLongitude -= 360;
+        }
+        double centerLatitude = (minLatitude + maxLatitude) / 2;
+        
+        return toNearbyDestinations(geoIndex.within(minLongitude, minLatitude, maxLongitude, maxLatitude,
+            centerLatitude, centerLongitude, normalizePageSize(limit)));
     }
     
     public Destination createDestination(Destination destination) {
-        return destinationRepository.save(destination);
+        Destination savedDestination = destinationRepository.save(destination);
+        eventPublisher.publishEvent(new DestinationChangedEvent(savedDestination.getId(), savedDestination));
+        return savedDestination;
     }
     
     public Destination updateDestination(String id, Destination destinationDetails) {
@@ -83,10 +172,123 @@ public class DestinationService {
         destination.setHighlights(destinationDetails.getHighlights());
         destination.setAmenities(destinationDetails.getAmenities());
         
-        return destinationRepository.save(destination);
+        Destination savedDestination = destinationRepository.save(destination);
+        eventPublisher.publishEvent(new DestinationChangedEvent(id, savedDestination));
+        return savedDestination;
     }
     
     public void deleteDestination(String id) {
         destinationRepository.deleteById(id);
+        eventPublisher.publishEvent(new DestinationChangedEvent(id, null));
+    }
+    
+    // Keyset-paginated card listings
+    
+    public PageResponse<DestinationCard> getDestinationCards(String sort, String cursor, Integer limit) {
+        return findCardPage(null, sort, cursor, limit);
+    }
+    
+    public PageResponse<DestinationCard> getFeaturedDestinationCards(String sort, String cursor, Integer limit) {
+        return findCardPage(Criteria.where("featured").is(true), sort, cursor, limit);
+    }
+    
+    public PageResponse<DestinationCard> getPopularDestinationCards(String sort, String cursor, Integer limit) {
+        return findCardPage(Criteria.where("popular").is(true), sort, cursor, limit);
+    }
+    
+    public PageResponse<DestinationCard> getDestinationCardsByCategory(String category, String sort,
+                                                                       String cursor, Integer limit) {
+        return findCardPage(Criteria.where("category").is(category), sort, cursor, limit);
+    }
+    
+    // Ranked by relevance unless an explicit sort is requested
+    public PageResponse<DestinationCard> searchDestinationCards(String query, String sort,
+                                                                String cursor, Integer limit) {
+        List<SearchHit> hits = searchIndex.search(query);
+        if (sort != null && !sort.isBlank()) {
+            List<String> ids = hits.stream().map(SearchHit::getDestinationId).toList();
+            return findCardPage(Criteria.where("id").in(ids), sort, cursor, limit);
+        }
+        
+        PageCursor after = cursor != null && !cursor.isBlank()
+            ? PageCursor.decode(cursor, RELEVANCE_SORT_KEY)
+            : null;
+        int pageSize = normalizePageSize(limit);
+        
+        List<SearchHit> page = hits.stream()
+            .filter(hit -> after == null || isAfter(hit, after))
+            .limit(pageSize + 1L)
+            .toList();
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+        
+        List<DestinationCard> cards = destinationRepository.findCardsByIds(
+            page.stream().map(SearchHit::getDestinationId).toList());
+        String nextCursor = null;
+        if (hasMore) {
+            SearchHit last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(RELEVANCE_SORT_KEY, last.getScore(), last.getDestinationId()).encode();
+        }
+        return PageResponse.of(cards, nextCursor);
+    }
+    
+    // Hits are ordered by score descending, then id ascending
+    private boolean isAfter(SearchHit hit, PageCursor after) {
+        double cursorScore = ((Number) after.getValue()).doubleValue();
+        return hit.getScore() < cursorScore
+            || (hit.getScore() == cursorScore && hit.getDestinationId().compareTo(after.getId()) > 0);
+    }
+    
+    private PageResponse<DestinationCard> findCardPage(Criteria filter, String sortParam,
+                                                       String cursorToken, Integer limit) {
+        DestinationSort sort = DestinationSort.fromParam(sortParam);
+        PageCursor after = cursorToken != null && !cursorToken.isBlank()
+            ? PageCursor.decode(cursorToken, sort.name())
+            : null;
+        int pageSize = normalizePageSize(limit);
+        
+        // Fetch one extra card to know whether another page exists
+        List<DestinationCard> cards = destinationRepository.findCards(filter, sort, after, pageSize + 1);
+        if (cards.size() <= pageSize) {
+            return PageResponse.of(cards, null);
+        }
+        
+        List<DestinationCard> page = cards.subList(0, pageSize);
+        DestinationCard last = page.get(pageSize - 1);
+        String nextCursor = new PageCursor(sort.name(), sort.keyOf(last), last.getId()).encode();
+        return PageResponse.of(List.copyOf(page), nextCursor);
+    }
+    
+    private List<NearbyDestination> toNearbyDestinations(List<GeoHit> hits) {
+        Map<String, DestinationCard> cards = new HashMap<>();
+        destinationRepository.findCardsByIds(hits.stream().map(GeoHit::getDestinationId).toList())
+            .forEach(card -> cards.put(card.getId(), card));
+        
+        return hits.stream()
+            .filter(hit -> cards.containsKey(hit.getDestinationId()))
+            .map(hit -> new NearbyDestination(cards.get(hit.getDestinationId()),
+                hit.getLatitude(), hit.getLongitude(), hit.getDistanceKm()))
+            .toList();
+    }
+    
+    private List<Destination> findAllInOrder(List<String> ids) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        
+        List<Destination> destinations = new ArrayList<>();
+        destinationRepository.findAllById(ids).forEach(destinations::add);
+        destinations.sort(Comparator.comparing(destination -> rank.get(destination.getId())));
+        return destinations;
+    }
+    
+    private int normalizePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 }
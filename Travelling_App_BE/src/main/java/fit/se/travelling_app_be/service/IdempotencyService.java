@@ -0,0 +1,277 @@
+package fit.se.travelling_app_be.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fit.se.travelling_app_be.entity.IdempotencyRecord;
+import fit.se.travelling_app_be.exception.IdempotencyConflictException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key and replays its first response to retries.
+ * Concurrent duplicates on this node wait on the in-flight future; across nodes the key is
+ * claimed by inserting an IN_PROGRESS record, so a retry that lands elsewhere polls for the
+ * result instead of running the request again. Only successful responses are kept (locally
+ * and in Mongo until the TTL index removes them); a failed request frees its key for the retry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+    
+    public static final int MAX_KEY_LENGTH = 255;
+    
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse<?>>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, StoredResponse<?>> completed;
+    
+    @Value("${app.idempotency.ttl:PT1H}")
+    private Duration ttl;
+    
+    @Value("${app.idempotency.local-maximum-size:10000}")
+    private long localMaximumSize;
+    
+    // How long a duplicate waits for the first request before giving up with a conflict
+    @Value("${app.idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+    
+    // An IN_PROGRESS claim older than this belongs to a node that died mid-request and may be taken over
+    @Value("${app.idempotency.claim-timeout:PT1M}")
+    private Duration claimTimeout;
+    
+    @PostConstruct
+    void init() {
+        completed = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+    
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, TypeReference<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        
+        while (true) {
+            StoredResponse<?> cached = completed.getIfPresent(id);
+            if (cached != null) {
+                return replay(cached, fingerprint, responseType);
+            }
+            
+            CompletableFuture<StoredResponse<?>> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse<?>> leader = inFlight.putIfAbsent(id, mine);
+            if (leader != null) {
+                StoredResponse<?> shared = await(leader, deadline);
+                if (shared != null) {
+                    return replay(shared, fingerprint, responseType);
+                }
+                continue; // the first request failed; the key is free again
+            }
+            
+            try {
+                StoredResponse<T> stored = run(id, fingerprint, action, deadline);
+                mine.complete(stored.withoutResponse());
+                return stored.response() != null ? stored.response() : replay(stored, fingerprint, responseType);
+            } catch (RuntimeException e) {
+                mine.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(id, mine);
+            }
+        }
+    }
+    
+    private <T> StoredResponse<T> run(String id, String fingerprint, Supplier<ResponseEntity<T>> action,
+                                      long deadline) {
+        IdempotencyRecord existing = claim(id, fingerprint, deadline);
+        if (existing != null) {
+            StoredResponse<T> stored = new StoredResponse<>(existing.getFingerprint(), existing.getHttpStatus(),
+                existing.getResponseBody(), null);
+            completed.put(id, stored);
+            return stored;
+        }
+        
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(id);
+            throw e;
+        }
+        
+        String body = serialize(response.getBody());
+        StoredResponse<T> stored = new StoredResponse<>(fingerprint, response.getStatusCode().value(), body, response);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            completed.put(id, stored.withoutResponse());
+            Update update = new Update()
+                .set("status", COMPLETED)
+                .set("httpStatus", stored.httpStatus())
+                .set("responseBody", body)
+                .set("expiresAt", LocalDateTime.now().plus(ttl));
+            try {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)), update, IdempotencyRecord.class);
+            } catch (Exception e) {
+                // The request already ran; retries on this node still replay from the local cache
+                log.error("❌ Error storing response for idempotency key {}: {}", id, e.getMessage());
+            }
+        } else {
+            // Rejected requests are not remembered, so a corrected retry with the same key can go through
+            release(id);
+        }
+        return stored;
+    }
+    
+    // Returns the completed record of an earlier request, or null once this node owns the key
+    private IdempotencyRecord claim(String id, String fingerprint, long deadline) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setId(id);
+            record.setFingerprint(fingerprint);
+            record.setStatus(IN_PROGRESS);
+            record.setCreatedAt(now);
+            record.setExpiresAt(now.plus(ttl));
+            try {
+                mongoTemplate.insert(record);
+                return null;
+            } catch (DuplicateKeyException e) {
+                // someone else holds the key; fall through and look at their record
+            }
+            
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                continue; // released in the meantime
+            }
+            if (COMPLETED.equals(existing.getStatus()) && existing.getExpiresAt().isAfter(now)) {
+                return existing;
+            }
+            if (!COMPLETED.equals(existing.getStatus()) && existing.getCreatedAt().isAfter(now.minus(claimTimeout))) {
+                sleepUntilNextPoll(deadline);
+                continue;
+            }
+            
+            // Expired but not yet removed by the TTL monitor, or abandoned by a dead node
+            Query stale = Query.query(Criteria.where("id").is(id).and("createdAt").is(existing.getCreatedAt()));
+            Update update = new Update()
+                .set("fingerprint", fingerprint)
+                .set("status", IN_PROGRESS)
+                .set("createdAt", now)
+                .set("expiresAt", now.plus(ttl))
+                .unset("httpStatus")
+                .unset("responseBody");
+            if (mongoTemplate.findAndModify(stale, update, FindAndModifyOptions.options().returnNew(true),
+                    IdempotencyRecord.class) != null) {
+                return null;
+            }
+        }
+    }
+    
+    private void release(String id) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(id).and("status").is(IN_PROGRESS)),
+                IdempotencyRecord.class);
+        } catch (Exception e) {
+            // The claim times out on its own
+            log.error("❌ Error releasing idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+    
+    private StoredResponse<?> await(CompletableFuture<StoredResponse<?>> leader, long deadline) {
+        try {
+            return leader.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+    
+    private static void sleepUntilNextPoll(long deadline) {
+        if (System.nanoTime() >= deadline) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+    
+    private <T> ResponseEntity<T> replay(StoredResponse<?> stored, String fingerprint, TypeReference<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.httpStatus())
+                .header("Idempotent-Replayed", "true")
+                .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+    
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+    
+    private String serialize(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent response", e);
+        }
+    }
+    
+    // response is the original object, handed back as-is to the request that produced it and never cached
+    private record StoredResponse<T>(String fingerprint, int httpStatus, String body, ResponseEntity<T> response) {
+        
+        StoredResponse<T> withoutResponse() {
+            return new StoredResponse<>(fingerprint, httpStatus, body, null);
+        }
+    }
+}
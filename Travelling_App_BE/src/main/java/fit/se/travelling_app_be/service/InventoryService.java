@@ -0,0 +1,299 @@
+package fit.se.travelling_app_be.service;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.BookingStatus;
+import fit.se.travelling_app_be.entity.DepartureInventory;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.entity.SeatHold;
+import fit.se.travelling_app_be.exception.SoldOutException;
+import fit.se.travelling_app_be.outbox.BookingOutboxDispatcher;
+import fit.se.travelling_app_be.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seat inventory per destination and departure date. A reservation is one conditional
+ * findAndModify ({remaining >= n} -> $inc remaining -n), so concurrent bookings never read
+ * and write back a count and cannot oversell. Taken seats are recorded as a SeatHold; a hold
+ * that is not confirmed before it expires is swept back into inventory, and releasing a hold
+ * first flips its status conditionally so the seats are returned exactly once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryService {
+    
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+    
+    private static final int MAX_CAPACITY_RETRIES = 5;
+    
+    private final MongoTemplate mongoTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingOutboxDispatcher outboxDispatcher;
+    
+    // Departures nobody configured start with this many seats
+    @Value("${app.inventory.default-capacity:30}")
+    private int defaultCapacity;
+    
+    @Value("${app.inventory.hold-ttl:PT10M}")
+    private Duration holdTtl;
+    
+    @Value("${app.inventory.expiry-batch-size:500}")
+    private int expiryBatchSize;
+    
+    public SeatHold reserve(String destinationId, LocalDate departureDate, int seats, String userId) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("Number of seats must be positive");
+        }
+        DepartureInventory inventory = take(destinationId, departureDate, seats);
+        if (inventory == null) {
+            // Either sold out or never configured; retrying after a no-op upsert tells them apart
+            createIfMissing(destinationId, departureDate, defaultCapacity);
+            inventory = take(destinationId, departureDate, seats);
+        }
+        if (inventory == null) {
+            throw new SoldOutException("Not enough seats left on " + departureDate);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        SeatHold hold = new SeatHold();
+        hold.setDestinationId(destinationId);
+        hold.setDepartureDate(departureDate);
+        hold.setSeats(seats);
+        hold.setUserId(userId);
+        hold.setStatus(HELD);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(holdTtl));
+        try {
+            return mongoTemplate.insert(hold);
+        } catch (RuntimeException e) {
+            giveBack(destinationId, departureDate, seats);
+            throw e;
+        }
+    }
+    
+    // Links a hold to its booking; a confirmed hold no longer expires. False if the hold already expired.
+    public boolean attach(String holdId, String bookingId, boolean confirmed) {
+        Update update = Update.update("bookingId", bookingId);
+        if (confirmed) {
+            update.set("status", CONFIRMED).unset("expiresAt");
+        }
+        Query query = Query.query(Criteria.where("id").is(holdId).and("status").is(HELD));
+        return mongoTemplate.updateFirst(query, update, SeatHold.class).getModifiedCount() > 0;
+    }
+    
+    /**
+     * Confirms the seats a booking holds. If the sweeper already expired its hold, the seats are
+     * taken again (SoldOutException when they are gone), so a confirmed booking always owns them.
+     * True if seats were confirmed or taken by this call, false if nothing had to change.
+     */
+    public boolean confirm(String bookingId) {
+        Query held = Query.query(Criteria.where("bookingId").is(bookingId).and("status").is(HELD));
+        Update update = Update.update("status", CONFIRMED).unset("expiresAt");
+        if (mongoTemplate.updateMulti(held, update, SeatHold.class).getModifiedCount() > 0) {
+            return true;
+        }
+        Query live = Query.query(Criteria.where("bookingId").is(bookingId).and("status").in(HELD, CONFIRMED));
+        if (mongoTemplate.exists(live, SeatHold.class)) {
+            return false;
+        }
+        Query expired = Query.query(Criteria.where("bookingId").is(bookingId).and("status").is(EXPIRED))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        SeatHold lapsed = mongoTemplate.findOne(expired, SeatHold.class);
+        if (lapsed == null) {
+            // booked before seats were tracked
+            return false;
+        }
+        SeatHold hold = reserve(lapsed.getDestinationId(), lapsed.getDepartureDate(), lapsed.getSeats(),
+            lapsed.getUserId());
+        if (!attach(hold.getId(), bookingId, true)) {
+            throw new SoldOutException("Seat hold expired before the booking was confirmed");
+        }
+        return true;
+    }
+    
+    // Returns the seats of every live hold of the booking; safe to call more than once
+    public int release(String bookingId) {
+        Query live = Query.query(Criteria.where("bookingId").is(bookingId).and("status").in(HELD, CONFIRMED));
+        int released = 0;
+        for (SeatHold hold : mongoTemplate.find(live, SeatHold.class)) {
+            if (finish(hold, RELEASED)) {
+                released += hold.getSeats();
+            }
+        }
+        return released;
+    }
+    
+    public void releaseHold(String holdId) {
+        SeatHold hold = mongoTemplate.findById(holdId, SeatHold.class);
+        if (hold != null && (HELD.equals(hold.getStatus()) || CONFIRMED.equals(hold.getStatus()))) {
+            finish(hold, RELEASED);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-interval:PT30S}")
+    public void expireHolds() {
+        int expired = 0;
+        try {
+            List<SeatHold> holds;
+            do {
+                Query query = Query.query(Criteria.where("status").is(HELD).and("expiresAt").lt(LocalDateTime.now()))
+                    .with(Sort.by("expiresAt")).limit(expiryBatchSize);
+                holds = mongoTemplate.find(query, SeatHold.class);
+                for (SeatHold hold : holds) {
+                    if (finish(hold, EXPIRED)) {
+                        expired++;
+                        cancelPendingBooking(hold.getBookingId());
+                    }
+                }
+            } while (holds.size() == expiryBatchSize);
+        } catch (Exception e) {
+            log.error("❌ Error expiring seat holds: {}", e.getMessage());
+        }
+        if (expired > 0) {
+            log.info("Expired {} seat holds back into inventory", expired);
+        }
+    }
+    
+    public DepartureInventory getAvailability(String destinationId, LocalDate departureDate) {
+        DepartureInventory inventory = mongoTemplate.findOne(byDeparture(destinationId, departureDate),
+            DepartureInventory.class);
+        if (inventory != null) {
+            return inventory;
+        }
+        DepartureInventory unconfigured = new DepartureInventory();
+        unconfigured.setDestinationId(destinationId);
+        unconfigured.setDepartureDate(departureDate);
+        unconfigured.setCapacity(defaultCapacity);
+        unconfigured.setRemaining(defaultCapacity - bookedSeats(destinationId, departureDate));
+        return unconfigured;
+    }
+    
+    // Seats already taken stay taken, so capacity cannot drop below them
+    public DepartureInventory setCapacity(String destinationId, LocalDate departureDate, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        createIfMissing(destinationId, departureDate, capacity);
+        for (int attempt = 0; attempt < MAX_CAPACITY_RETRIES; attempt++) {
+            DepartureInventory current = mongoTemplate.findOne(byDeparture(destinationId, departureDate),
+                DepartureInventory.class);
+            int taken = current.getCapacity() - current.getRemaining();
+            if (capacity < taken) {
+                throw new IllegalArgumentException(taken + " seats are already taken on " + departureDate);
+            }
+            // Compare-and-set on capacity; concurrent reservations only move remaining, which $inc keeps exact
+            Query query = byDeparture(destinationId, departureDate)
+                .addCriteria(Criteria.where("capacity").is(current.getCapacity())
+                    .and("remaining").gte(current.getCapacity() - capacity));
+            Update update = new Update()
+                .set("capacity", capacity)
+                .inc("remaining", capacity - current.getCapacity())
+                .currentDate("updatedAt");
+            DepartureInventory updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), DepartureInventory.class);
+            if (updated != null) {
+                return updated;
+            }
+        }
+        throw new RuntimeException("Departure capacity is being changed concurrently, try again");
+    }
+    
+    private DepartureInventory take(String destinationId, LocalDate departureDate, int seats) {
+        Query query = byDeparture(destinationId, departureDate).addCriteria(Criteria.where("remaining").gte(seats));
+        Update update = new Update().inc("remaining", -seats).currentDate("updatedAt");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+            DepartureInventory.class);
+    }
+    
+    private void giveBack(String destinationId, LocalDate departureDate, int seats) {
+        mongoTemplate.updateFirst(byDeparture(destinationId, departureDate),
+            new Update().inc("remaining", seats).currentDate("updatedAt"), DepartureInventory.class);
+    }
+    
+    // Flips a live hold to a final status; only the caller that wins the flip returns the seats
+    private boolean finish(SeatHold hold, String status) {
+        Query query = Query.query(Criteria.where("id").is(hold.getId()).and("status").is(hold.getStatus()));
+        boolean flipped = mongoTemplate.updateFirst(query, Update.update("status", status), SeatHold.class)
+            .getModifiedCount() > 0;
+        if (flipped) {
+            giveBack(hold.getDestinationId(), hold.getDepartureDate(), hold.getSeats());
+        }
+        return flipped;
+    }
+    
+    private void cancelPendingBooking(String bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        // Same conditional transition as a user cancel, so the status change event still goes out
+        String cancelled = BookingStatus.CANCELLED.name();
+        Booking booking = bookingRepository.transition(bookingId, "status", cancelled,
+            List.of(BookingStatus.PENDING.name()),
+            OutboxEvent.of(OutboxEvent.BOOKING_STATUS_CHANGED, Map.of("status", cancelled)));
+        if (booking != null) {
+            outboxDispatcher.wakeUp();
+        }
+    }
+    
+    // A new departure starts without the seats of bookings made before it was tracked, even if that leaves it below zero
+    private void createIfMissing(String destinationId, LocalDate departureDate, int capacity) {
+        if (mongoTemplate.exists(byDeparture(destinationId, departureDate), DepartureInventory.class)) {
+            return;
+        }
+        Update update = new Update()
+            .setOnInsert("capacity", capacity)
+            .setOnInsert("remaining", capacity - bookedSeats(destinationId, departureDate))
+            .setOnInsert("updatedAt", LocalDateTime.now());
+        try {
+            mongoTemplate.upsert(byDeparture(destinationId, departureDate), update, DepartureInventory.class);
+        } catch (DuplicateKeyException e) {
+            // a concurrent upsert created it first
+        }
+    }
+    
+    // Travelers of active bookings on the departure day; a booking not yet migrated still holds a DBRef
+    private int bookedSeats(String destinationId, LocalDate departureDate) {
+        List<Object> ids = new ArrayList<>(List.of(destinationId));
+        if (ObjectId.isValid(destinationId)) {
+            ids.add(new ObjectId(destinationId));
+        }
+        Query query = Query.query(new Criteria()
+            .orOperator(Criteria.where("destination._id").in(ids), Criteria.where("destination.$id").in(ids))
+            .and("status").in(BookingStatus.PENDING.name(), BookingStatus.CONFIRMED.name())
+            .and("travelDate").gte(departureDate.atStartOfDay()).lt(departureDate.plusDays(1).atStartOfDay()));
+        query.fields().include("numberOfTravelers");
+        int seats = 0;
+        for (Document booking : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Booking.class))) {
+            Integer travelers = booking.getInteger("numberOfTravelers");
+            seats += travelers != null ? travelers : 1;
+        }
+        return seats;
+    }
+    
+    private static Query byDeparture(String destinationId, LocalDate departureDate) {
+        return Query.query(Criteria.where("destinationId").is(destinationId).and("departureDate").is(departureDate));
+    }
+}
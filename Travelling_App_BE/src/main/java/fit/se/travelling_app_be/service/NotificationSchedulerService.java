@@ -1,6 +1,10 @@
 package fit.se.travelling_app_be.service;
 
+import fit.se.travelling_app_be.cluster.PartitionLeaseManager;
+import fit.se.travelling_app_be.cluster.Partitioning;
+import fit.se.travelling_app_be.dto.response.ReminderRunReport;
 import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.reminder.ReminderEngine;
 import fit.se.travelling_app_be.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,171 +13,94 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationSchedulerService {
     
+    // The earliest reminder goes out 7 days before departure
+    private static final int HORIZON_DAYS = 8;
+    // Bookings scanned between two checks that this node still holds the partition
+    private static final int FENCE_EVERY = 200;
+    
     private final BookingRepository bookingRepository;
-    private final NotificationService notificationService;
+    private final ReminderEngine reminderEngine;
+    private final PartitionLeaseManager reminderLeases;
     
-    // Chạy mỗi giờ để kiểm tra tour sắp khởi hành
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 ms
+    /**
+     * Reminders are scheduled when a booking is created; this only catches bookings that never
+     * were. Each node scans just the partitions it holds a lease on, and stops scanning one as
+     * soon as its fencing token is no longer current.
+     */
+    @Scheduled(initialDelayString = "${app.reminder.backstop-initial-delay:PT1M}",
+        fixedDelayString = "${app.reminder.backstop-interval:PT6H}")
     public void checkUpcomingTours() {
-        log.info("🔔 Checking for upcoming tours...");
+        Map<Integer, Long> held = reminderLeases.ownedPartitions();
+        if (held.isEmpty()) {
+            log.debug("No reminder partitions held by this node, skipping upcoming tours check");
+            return;
+        }
+        log.info("🔔 Checking for upcoming tours in partitions {}...", held.keySet());
+        long start = System.nanoTime();
+        ReminderRunReport report = new ReminderRunReport();
+        LocalDateTime from = LocalDate.now().atStartOfDay();
         
-        try {
-            // Lấy tất cả bookings có status CONFIRMED hoặc PENDING
-            List<Booking> allBookings = bookingRepository.findAll();
-            
-            LocalDate today = LocalDate.now();
-            LocalDate tomorrow = today.plusDays(1);
-            LocalDate threeDaysLater = today.plusDays(3);
-            
-            for (Booking booking : allBookings) {
-                // Chỉ xử lý tour đã xác nhận và chưa hoàn thành
-                if (!"CONFIRMED".equals(booking.getStatus()) && !"PENDING".equals(booking.getStatus())) {
-                    continue;
-                }
-                
-                try {
-                    // Get travel date as LocalDate
-                    if (booking.getTravelDate() == null) {
-                        continue;
-                    }
-                    
-                    LocalDate travelDate = booking.getTravelDate().toLocalDate();
-                    
-                    // Tính số ngày còn lại
-                    long daysUntilTravel = ChronoUnit.DAYS.between(today, travelDate);
-                    
-                    // Kiểm tra xem đã gửi notification chưa
-                    boolean alreadyNotified = hasRecentNotification(
-                        booking.getUserId(), 
-                        booking.getId(), 
-                        daysUntilTravel
-                    );
-                    
-                    if (alreadyNotified) {
-                        continue;
-                    }
-                    
-                    String destinationName = "điểm đến của bạn";
-                    if (booking.getDestination() != null && booking.getDestination().getName() != null) {
-                        destinationName = booking.getDestination().getName();
-                    }
-                    
-                    // Gửi thông báo dựa trên số ngày còn lại
-                    if (daysUntilTravel == 1) {
-                        // Tour khởi hành vào ngày mai
-                        notificationService.createNotification(
-                            booking.getUserId(),
-                            "Tour sắp khởi hành! 🎒",
-                            "Tour đến " + destinationName + " của bạn sẽ khởi hành vào ngày mai. Hãy chuẩn bị sẵn sàng!",
-                            "booking",
-                            booking.getId(),
-                            "upcoming-1d"
-                        );
-                        log.info("✅ Sent 1-day reminder for booking: {}", booking.getId());
-                        
-                    } else if (daysUntilTravel == 3) {
-                        // Tour khởi hành sau 3 ngày
-                        DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                        String travelDateStr = travelDate.format(displayFormatter);
-                        
-                        notificationService.createNotification(
-                            booking.getUserId(),
-                            "Nhắc nhở: Tour sắp khởi hành 📅",
-                            "Tour đến " + destinationName + " của bạn sẽ khởi hành trong 3 ngày nữa (ngày " + travelDateStr + ").",
-                            "booking",
-                            booking.getId(),
-                            "upcoming-3d"
-                        );
-                        log.info("✅ Sent 3-day reminder for booking: {}", booking.getId());
-                        
-                    } else if (daysUntilTravel == 0) {
-                        // Tour khởi hành hôm nay
-                        notificationService.createNotification(
-                            booking.getUserId(),
-                            "Tour khởi hành hôm nay! 🚀",
-                            "Chuyến đi đến " + destinationName + " của bạn khởi hành hôm nay. Chúc bạn có một chuyến đi vui vẻ!",
-                            "booking",
-                            booking.getId(),
-                            "upcoming-0d"
-                        );
-                        log.info("✅ Sent same-day reminder for booking: {}", booking.getId());
-                        
-                    } else if (daysUntilTravel == 7) {
-                        // Tour khởi hành sau 1 tuần
-                        notificationService.createNotification(
-                            booking.getUserId(),
-                            "Tour sắp đến! 🗓️",
-                            "Tour đến " + destinationName + " của bạn sẽ khởi hành trong 1 tuần nữa. Đừng quên chuẩn bị hành lý nhé!",
-                            "booking",
-                            booking.getId(),
-                            "upcoming-7d"
-                        );
-                        log.info("✅ Sent 7-day reminder for booking: {}", booking.getId());
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("❌ Error processing booking {}: {}", booking.getId(), e.getMessage());
-                }
+        held.forEach((partition, token) -> {
+            BooleanSupplier stillOwner = () -> reminderLeases.fence(partition, token);
+            if (!stillOwner.getAsBoolean()) {
+                return;
             }
-            
-            log.info("✅ Finished checking upcoming tours");
-            
-        } catch (Exception e) {
-            log.error("❌ Error in checkUpcomingTours: {}", e.getMessage());
-        }
+            List<Integer> shards = Partitioning.shardsOf(partition, reminderLeases.getPartitions());
+            scan(bookingRepository.findUpcomingBookings(from, from.plusDays(HORIZON_DAYS), shards), report, stillOwner);
+        });
+        finish(report, start);
+    }
+    
+    /**
+     * One indexed range query over the bookings departing within the reminder horizon, making
+     * sure each has its reminders scheduled. Reminders already scheduled (or sent) for the same
+     * travel date are left untouched, so running this repeatedly, or on two nodes at once,
+     * schedules nothing twice. Covers every partition regardless of leases.
+     */
+    public ReminderRunReport runReminders() {
+        log.info("🔔 Checking for upcoming tours...");
+        long start = System.nanoTime();
+        ReminderRunReport report = new ReminderRunReport();
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        scan(bookingRepository.findUpcomingBookings(from, from.plusDays(HORIZON_DAYS)), report, () -> true);
+        return finish(report, start);
     }
     
-    // Kiểm tra xem đã gửi notification cho booking này với reminderType cụ thể chưa
-    private boolean hasRecentNotification(String userId, String bookingId, long daysUntil) {
-        try {
-            List<fit.se.travelling_app_be.model.Notification> notifications = 
-                notificationService.getUserNotifications(userId);
-            
-            // Xác định reminderType cần check
-            String targetReminderType;
-            if (daysUntil == 0) {
-                targetReminderType = "upcoming-0d";
-            } else if (daysUntil == 1) {
-                targetReminderType = "upcoming-1d";
-            } else if (daysUntil == 3) {
-                targetReminderType = "upcoming-3d";
-            } else if (daysUntil == 7) {
-                targetReminderType = "upcoming-7d";
-            } else {
-                return false; // Không phải các ngày cần reminder
+    // Method để test thủ công (có thể gọi qua API)
+    public ReminderRunReport checkUpcomingToursManually() {
+        log.info("🔧 Manual check triggered");
+        return runReminders();
+    }
+    
+    private void scan(List<Booking> bookings, ReminderRunReport report, BooleanSupplier stillOwner) {
+        for (Booking booking : bookings) {
+            if (report.getScanned() > 0 && report.getScanned() % FENCE_EVERY == 0 && !stillOwner.getAsBoolean()) {
+                log.warn("Reminder partition was taken over by another node, stopping its scan");
+                return;
             }
-            
-            // Kiểm tra xem đã có notification với cùng bookingId và reminderType chưa
-            for (fit.se.travelling_app_be.model.Notification notification : notifications) {
-                if (bookingId.equals(notification.getRelatedId()) &&
-                    targetReminderType.equals(notification.getReminderType())) {
-                    
-                    log.info("⏭️ Skip: Already sent {} notification for booking {}", targetReminderType, bookingId);
-                    return true;
-                }
+            report.setScanned(report.getScanned() + 1);
+            try {
+                report.setScheduled(report.getScheduled() + reminderEngine.schedule(booking));
+            } catch (Exception e) {
+                report.setFailed(report.getFailed() + 1);
+                log.error("❌ Error scheduling reminders for booking {}: {}", booking.getId(), e.getMessage());
             }
-            
-            return false;
-            
-        } catch (Exception e) {
-            log.error("❌ Error checking recent notifications: {}", e.getMessage());
-            return false; // Nếu có lỗi, cho phép gửi (better to send than skip)
         }
     }
     
-    // Method để test thủ công (có thể gọi qua API)
-    public void checkUpcomingToursManually() {
-        log.info("🔧 Manual check triggered");
-        checkUpcomingTours();
+    private ReminderRunReport finish(ReminderRunReport report, long start) {
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("✅ Finished checking upcoming tours: scanned={} scheduled={} failed={} in {} ms",
+            report.getScanned(), report.getScheduled(), report.getFailed(), report.getElapsedMillis());
+        return report;
     }
 }
-
@@ -1,17 +1,30 @@
 package fit.se.travelling_app_be.service;
 
+import com.mongodb.bulk.BulkWriteError;
 import fit.se.travelling_app_be.model.Notification;
+import fit.se.travelling_app_be.notification.NotificationHub;
 import fit.se.travelling_app_be.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
+    private static final int DUPLICATE_KEY = 11000;
+    
     private final NotificationRepository notificationRepository;
+    private final MongoTemplate mongoTemplate;
+    private final NotificationHub notificationHub;
     
     public Notification createNotification(String userId, String title, String message, 
                                           String type, String relatedId) {
@@ -30,7 +43,72 @@ public class NotificationService {
         notification.setRelatedId(relatedId);
         notification.setReminderType(reminderType);
         
-        return notificationRepository.save(notification);
+        Notification saved;
+        try {
+            saved = notificationRepository.save(notification);
+        } catch (DuplicateKeyException e) {
+            return notification; // this reminder was already sent for relatedId
+        }
+        notificationHub.publish(saved);
+        return saved;
+    }
+    
+    // Inserts under a caller-chosen id; a second call with the same id keeps the first notification
+    public Notification createNotificationOnce(String id, String userId, String title, String message,
+                                               String type, String relatedId) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId(userId);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setType(type);
+        notification.setRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRelatedId(relatedId);
+        
+        Notification saved;
+        try {
+            saved = notificationRepository.insert(notification);
+        } catch (DuplicateKeyException e) {
+            return notificationRepository.findById(id).orElse(notification);
+        }
+        notificationHub.publish(saved);
+        return saved;
+    }
+    
+    /**
+     * One unordered bulk insert of reminder notifications. Reminders that were already sent hit
+     * the unique index on (relatedId, reminderType) and are skipped; any other write error fails
+     * the call so the caller can retry the whole batch. Returns how many were newly inserted.
+     */
+    public long createReminders(List<Notification> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        // Ids are assigned up front so the inserted reminders can be pushed to open streams
+        reminders.forEach(reminder -> reminder.setId(new ObjectId().toHexString()));
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        bulk.insert(reminders);
+        Set<Integer> failed = new HashSet<>();
+        long inserted;
+        try {
+            inserted = bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Unordered: the other reminders still went out
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw new RuntimeException("Failed to insert reminders: " + error.getMessage(), e);
+                }
+                failed.add(error.getIndex());
+            }
+            inserted = e.getResult().getInsertedCount();
+        }
+        for (int i = 0; i < reminders.size(); i++) {
+            if (!failed.contains(i)) {
+                notificationHub.publish(reminders.get(i));
+            }
+        }
+        return inserted;
     }
     
     public List<Notification> getUserNotifications(String userId) {
@@ -41,17 +119,23 @@ public class NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
             .orElseThrow(() -> new RuntimeException("Notification not found"));
         notification.setRead(true);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        notificationHub.unreadCountChanged(saved.getUserId());
+        return saved;
     }
     
     public void markAllAsRead(String userId) {
         List<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
         notifications.forEach(n -> n.setRead(true));
         notificationRepository.saveAll(notifications);
+        notificationHub.unreadCountChanged(userId);
     }
     
     public void deleteNotification(String notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            notificationRepository.deleteById(notificationId);
+            notificationHub.unreadCountChanged(notification.getUserId());
+        });
     }
     
     public long getUnreadCount(String userId) {
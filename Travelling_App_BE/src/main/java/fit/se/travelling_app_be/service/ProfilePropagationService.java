@@ -0,0 +1,111 @@
+package fit.se.travelling_app_be.service;
+
+import fit.se.travelling_app_be.entity.ProfilePropagationJob;
+import fit.se.travelling_app_be.entity.Review;
+import fit.se.travelling_app_be.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Copies a user's fullName/avatar into their reviews in the background.
+ * updateUser only upserts a job document, so the request stays O(1) however many reviews the
+ * user has. The worker walks the user's reviews in _id order, one updateMulti per chunk,
+ * and records its position after every chunk so a restart resumes where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilePropagationService {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${app.profile-propagation.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.profile-propagation.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+    
+    @Value("${app.profile-propagation.pause-between-chunks:PT0.05S}")
+    private Duration pauseBetweenChunks;
+    
+    public void enqueue(User user) {
+        Query query = Query.query(Criteria.where("userId").is(user.getId()));
+        Update update = new Update()
+            .set("fullName", user.getFullName())
+            .set("avatar", user.getAvatar())
+            .inc("generation", 1)
+            .unset("lastReviewId")
+            .currentDate("updatedAt");
+        mongoTemplate.upsert(query, update, ProfilePropagationJob.class);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.profile-propagation.interval:PT2S}")
+    public void propagate() {
+        int budget = maxChunksPerRun;
+        Query pending = new Query().with(Sort.by("updatedAt")).limit(maxChunksPerRun);
+        for (ProfilePropagationJob job : mongoTemplate.find(pending, ProfilePropagationJob.class)) {
+            try {
+                budget = run(job, budget);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Error propagating profile of user {}: {}", job.getUserId(), e.getMessage());
+            }
+            if (budget <= 0) {
+                return;
+            }
+        }
+    }
+    
+    // Returns the chunk budget left for other jobs in this run
+    private int run(ProfilePropagationJob job, int budget) throws InterruptedException {
+        String lastReviewId = job.getLastReviewId();
+        while (budget > 0) {
+            Criteria scan = Criteria.where("userId").is(job.getUserId());
+            if (lastReviewId != null) {
+                scan.and("id").gt(lastReviewId);
+            }
+            Query chunkQuery = new Query(scan).with(Sort.by("id")).limit(chunkSize);
+            chunkQuery.fields().include("id");
+            List<String> ids = mongoTemplate.find(chunkQuery, Review.class).stream().map(Review::getId).toList();
+            budget--;
+            
+            if (!ids.isEmpty()) {
+                // Skip reviews that already show the current profile
+                Query stale = Query.query(Criteria.where("id").in(ids).orOperator(
+                    Criteria.where("userName").ne(job.getFullName()),
+                    Criteria.where("userAvatar").ne(job.getAvatar())));
+                mongoTemplate.updateMulti(stale,
+                    new Update().set("userName", job.getFullName()).set("userAvatar", job.getAvatar()), Review.class);
+                lastReviewId = ids.get(ids.size() - 1);
+            }
+            
+            Query sameGeneration = Query.query(Criteria.where("userId").is(job.getUserId())
+                .and("generation").is(job.getGeneration()));
+            if (ids.size() < chunkSize) {
+                // Done, unless the profile changed again meanwhile (then the newer generation runs next)
+                mongoTemplate.remove(sameGeneration, ProfilePropagationJob.class);
+                return budget;
+            }
+            if (mongoTemplate.updateFirst(sameGeneration, Update.update("lastReviewId", lastReviewId),
+                    ProfilePropagationJob.class).getMatchedCount() == 0) {
+                return budget;
+            }
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+        return budget;
+    }
+}
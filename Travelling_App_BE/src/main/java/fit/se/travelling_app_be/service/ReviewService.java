@@ -1,25 +1,39 @@
 package fit.se.travelling_app_be.service;
 
+import fit.se.travelling_app_be.dto.request.PageCursor;
 import fit.se.travelling_app_be.dto.request.ReviewRequest;
+import fit.se.travelling_app_be.dto.response.PageResponse;
+import fit.se.travelling_app_be.dto.response.ReviewSummary;
 import fit.se.travelling_app_be.entity.Destination;
 import fit.se.travelling_app_be.entity.Review;
 import fit.se.travelling_app_be.entity.User;
-import fit.se.travelling_app_be.repository.DestinationRepository;
+import fit.se.travelling_app_be.rating.RatingDelta;
+import fit.se.travelling_app_be.rating.RatingUpdateBuffer;
 import fit.se.travelling_app_be.repository.ReviewRepository;
 import fit.se.travelling_app_be.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
     
+    private static final String FEED_SORT_KEY = "NEWEST";
+    
     private final ReviewRepository reviewRepository;
-    private final DestinationRepository destinationRepository;
     private final UserRepository userRepository;
+    private final RatingUpdateBuffer ratingUpdateBuffer;
+    private final MongoTemplate mongoTemplate;
     
     public Review createReviewFromRequest(ReviewRequest request) {
         // Get user info
@@ -38,7 +52,7 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
         
         // Update destination rating
-        updateDestinationRating(review.getDestinationId());
+        ratingUpdateBuffer.submit(review.getDestinationId(), RatingDelta.added(review.getRating()));
         
         return savedReview;
     }
@@ -47,7 +61,7 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
         
         // Update destination rating
-        updateDestinationRating(review.getDestinationId());
+        ratingUpdateBuffer.submit(review.getDestinationId(), RatingDelta.added(review.getRating()));
         
         return savedReview;
     }
@@ -68,8 +82,63 @@ public class ReviewService {
         return reviewRepository.findByUserIdAndDestinationId(userId, destinationId).isPresent();
     }
     
-    public List<Review> getReviewsByRating(String destinationId, Integer minRating) {
-        return reviewRepository.findByDestinationIdAndRatingGreaterThanEqual(destinationId, minRating);
+    // Newest first; the cursor encodes (createdAt, _id) of the last review returned
+    public PageResponse<Review> getReviewFeed(String destinationId, Integer minRating, String cursor, Integer limit) {
+        PageCursor after = cursor != null && !cursor.isBlank() ? PageCursor.decode(cursor, FEED_SORT_KEY) : null;
+        if (after != null && after.getValue() != null && !(after.getValue() instanceof Date)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int pageSize = limit == null || limit <= 0
+            ? DestinationService.DEFAULT_PAGE_SIZE
+            : Math.min(limit, DestinationService.MAX_PAGE_SIZE);
+        
+        // Fetch one extra review to know whether another page exists
+        List<Review> reviews = reviewRepository.findFeed(destinationId, minRating, after, pageSize + 1);
+        if (reviews.size() <= pageSize) {
+            return PageResponse.of(reviews, null);
+        }
+        
+        List<Review> page = reviews.subList(0, pageSize);
+        Review last = page.get(pageSize - 1);
+        Date createdAt = last.getCreatedAt() != null
+            ? Date.from(last.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant())
+            : null;
+        String nextCursor = new PageCursor(FEED_SORT_KEY, createdAt, last.getId()).encode();
+        return PageResponse.of(List.copyOf(page), nextCursor);
+    }
+    
+    // Served from the aggregates kept on the destination; falls back to counting the index for untracked ones
+    public ReviewSummary getReviewSummary(String destinationId) {
+        Query query = Query.query(Criteria.where("id").is(destinationId));
+        query.fields().include("reviewCount", "ratingSum", "ratingCounts");
+        Destination destination = mongoTemplate.findOne(query, Destination.class);
+        if (destination == null) {
+            throw new RuntimeException("Destination not found");
+        }
+        
+        Map<Integer, Long> starCounts = new TreeMap<>();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        if (destination.getRatingSum() != null) {
+            Map<String, Integer> ratingCounts = destination.getRatingCounts() != null
+                ? destination.getRatingCounts()
+                : Map.of();
+            for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+                starCounts.put(stars, ratingCounts.getOrDefault(String.valueOf(stars), 0).longValue());
+            }
+            reviewCount = destination.getReviewCount() != null ? destination.getReviewCount() : 0;
+            ratingSum = destination.getRatingSum();
+        } else {
+            Map<Integer, Long> counted = reviewRepository.countByStars(destinationId);
+            for (int stars = RatingDelta.MIN_STARS; stars <= RatingDelta.MAX_STARS; stars++) {
+                long count = counted.getOrDefault(stars, 0L);
+                starCounts.put(stars, count);
+                reviewCount += count;
+                ratingSum += count * stars;
+            }
+        }
+        double average = reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+        return new ReviewSummary(destinationId, average, reviewCount, starCounts);
     }
     
     public Optional<Review> findById(String id) {
@@ -80,6 +149,7 @@ public class ReviewService {
         Review review = reviewRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Review not found"));
         
+        Integer oldRating = review.getRating();
         review.setRating(reviewDetails.getRating());
         review.setComment(reviewDetails.getComment());
         review.setImages(reviewDetails.getImages());
@@ -87,7 +157,9 @@ public class ReviewService {
         Review updatedReview = reviewRepository.save(review);
         
         // Update destination rating
-        updateDestinationRating(review.getDestinationId());
+        if (oldRating != null && review.getRating() != null) {
+            ratingUpdateBuffer.submit(review.getDestinationId(), RatingDelta.changed(oldRating, review.getRating()));
+        }
         
         return updatedReview;
     }
@@ -96,29 +168,11 @@ public class ReviewService {
         Review review = reviewRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Review not found"));
         
-        String destinationId = review.getDestinationId();
         reviewRepository.deleteById(id);
         
         // Update destination rating
-        updateDestinationRating(destinationId);
-    }
-    
-    private void updateDestinationRating(String destinationId) {
-        List<Review> reviews = reviewRepository.findByDestinationId(destinationId);
-        
-        if (!reviews.isEmpty()) {
-            double averageRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-            
-            Optional<Destination> destinationOpt = destinationRepository.findById(destinationId);
-            if (destinationOpt.isPresent()) {
-                Destination destination = destinationOpt.get();
-                destination.setRating(averageRating);
-                destination.setReviewCount(reviews.size());
-                destinationRepository.save(destination);
-            }
+        if (review.getRating() != null) {
+            ratingUpdateBuffer.submit(review.getDestinationId(), RatingDelta.removed(review.getRating()));
         }
     }
 }
@@ -15,6 +15,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ProfilePropagationService profilePropagationService;
     
     public User createUser(User user) {
         // Hash password before saving to database
@@ -34,6 +35,9 @@ public class UserService {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
+        boolean profileChanged = changed(user.getFullName(), userDetails.getFullName())
+            || changed(user.getAvatar(), userDetails.getAvatar());
+        
         // Only update fields that are not null
         if (userDetails.getFullName() != null) {
             user.setFullName(userDetails.getFullName());
@@ -57,7 +61,13 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        
+        // Reviews keep a copy of the name and avatar; refresh them in the background
+        if (profileChanged) {
+            profilePropagationService.enqueue(savedUser);
+        }
+        return savedUser;
     }
     
     public boolean existsByEmail(String email) {
@@ -79,4 +89,8 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         return userRepository.save(user);
     }
+    
+    private static boolean changed(String current, String requested) {
+        return requested != null && !requested.equals(current);
+    }
 }
@@ -0,0 +1,84 @@
+package fit.se.travelling_app_be.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The Redis tier is replaced by an in-memory ConcurrentMapCache stand-in
+class TwoTierCacheTest {
+    
+    private ConcurrentMapCache remote;
+    private List<String> published;
+    private TwoTierCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("destinations");
+        published = new ArrayList<>();
+        cache = newNode();
+    }
+    
+    private TwoTierCache newNode() {
+        return new TwoTierCache("destinations", Caffeine.newBuilder().maximumSize(100).build(), remote,
+            (cacheName, key) -> published.add(cacheName + ":" + key));
+    }
+    
+    @Test
+    void loadsOnceAndServesFromLocalTier() {
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            return "Paris";
+        };
+        
+        assertEquals("Paris", cache.get("d1", loader));
+        assertEquals("Paris", cache.get("d1", loader));
+        
+        assertEquals(1, loads.get());
+        assertEquals("Paris", remote.get("d1").get());
+        assertEquals(1, cache.stats().getLocalHits());
+    }
+    
+    @Test
+    void fallsBackToRemoteTierOnLocalMiss() {
+        remote.put("d2", "Tokyo");
+        
+        assertEquals("Tokyo", cache.get("d2").get());
+        assertEquals("Tokyo", cache.get("d2").get());
+        
+        assertEquals(1, cache.stats().getRemoteHits());
+        assertEquals(1, cache.stats().getLocalHits());
+    }
+    
+    @Test
+    void evictClearsBothTiersAndBroadcasts() {
+        cache.put("d3", "Bali");
+        
+        cache.evict("d3");
+        
+        assertNull(cache.get("d3"));
+        assertNull(remote.get("d3"));
+        assertEquals(List.of("destinations:d3"), published);
+    }
+    
+    @Test
+    void remoteInvalidationDropsOnlyLocalCopy() {
+        TwoTierCache otherNode = newNode();
+        cache.put("d4", "Dubai");
+        assertEquals("Dubai", otherNode.get("d4").get());
+        
+        // Node 1 updates the entry; node 2 receives the broadcast
+        cache.put("d4", "Dubai (updated)");
+        otherNode.evictLocal("d4");
+        
+        assertEquals("Dubai (updated)", otherNode.get("d4").get());
+    }
+}
@@ -0,0 +1,139 @@
+package fit.se.travelling_app_be.cluster;
+
+import fit.se.travelling_app_be.entity.JobLease;
+import fit.se.travelling_app_be.entity.JobMember;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Several in-process nodes sharing the configured MongoDB; each test uses its own job name
+@SpringBootTest
+class PartitionLeaseManagerTest {
+    
+    private static final int PARTITIONS = 12;
+    private static final Duration LEASE = Duration.ofSeconds(3);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final String job = "test-" + UUID.randomUUID();
+    private final List<PartitionLeaseManager> nodes = new ArrayList<>();
+    
+    @AfterEach
+    void cleanUp() {
+        Query query = Query.query(Criteria.where("job").is(job));
+        mongoTemplate.remove(query, JobLease.class);
+        mongoTemplate.remove(query, JobMember.class);
+    }
+    
+    private PartitionLeaseManager newNode(String name) {
+        PartitionLeaseManager node = new PartitionLeaseManager(mongoTemplate, job, name, PARTITIONS, LEASE);
+        nodes.add(node);
+        return node;
+    }
+    
+    private void heartbeatAll(int rounds, List<PartitionLeaseManager> live) {
+        for (int i = 0; i < rounds; i++) {
+            live.forEach(PartitionLeaseManager::heartbeat);
+        }
+    }
+    
+    private void assertDisjointAndComplete(List<PartitionLeaseManager> live) {
+        Set<Integer> seen = new HashSet<>();
+        for (PartitionLeaseManager node : live) {
+            for (int partition : node.ownedPartitions().keySet()) {
+                assertTrue(seen.add(partition), "partition " + partition + " held twice");
+            }
+        }
+        assertEquals(PARTITIONS, seen.size());
+    }
+    
+    @Test
+    void spreadsPartitionsEvenlyOverJoiningNodes() {
+        PartitionLeaseManager first = newNode("node-1");
+        first.heartbeat();
+        assertEquals(PARTITIONS, first.ownedPartitions().size());
+        
+        newNode("node-2");
+        newNode("node-3");
+        heartbeatAll(3, nodes);
+        
+        assertDisjointAndComplete(nodes);
+        for (PartitionLeaseManager node : nodes) {
+            assertEquals(PARTITIONS / 3, node.ownedPartitions().size());
+        }
+    }
+    
+    @Test
+    void survivorsTakeOverADeadNodeWithinOneLease() throws Exception {
+        newNode("node-1");
+        newNode("node-2");
+        PartitionLeaseManager dead = newNode("node-3");
+        heartbeatAll(3, nodes);
+        Map<Integer, Long> orphaned = dead.ownedPartitions();
+        assertFalse(orphaned.isEmpty());
+        
+        // node-3 stops heartbeating without handing anything back
+        List<PartitionLeaseManager> survivors = nodes.subList(0, 2);
+        long diedAt = System.nanoTime();
+        while (survivors.stream().mapToInt(node -> node.ownedPartitions().size()).sum() < PARTITIONS) {
+            assertTrue(System.nanoTime() - diedAt < LEASE.toNanos(), "takeover took longer than one lease");
+            Thread.sleep(LEASE.toMillis() / 10);
+            heartbeatAll(1, survivors);
+        }
+        
+        assertDisjointAndComplete(survivors);
+        orphaned.forEach((partition, token) -> {
+            assertFalse(dead.fence(partition, token), "stale owner still passes the fence");
+            long newToken = survivors.stream()
+                .map(node -> node.ownedPartitions().get(partition))
+                .filter(t -> t != null)
+                .findFirst().orElseThrow();
+            assertTrue(newToken > token);
+        });
+    }
+    
+    @Test
+    void stoppedNodeHandsItsPartitionsBackImmediately() {
+        PartitionLeaseManager leaving = newNode("node-1");
+        PartitionLeaseManager staying = newNode("node-2");
+        heartbeatAll(3, nodes);
+        
+        leaving.stop();
+        staying.heartbeat();
+        
+        assertTrue(leaving.ownedPartitions().isEmpty());
+        assertEquals(PARTITIONS, staying.ownedPartitions().size());
+    }
+    
+    @Test
+    void partitionsCoverEveryShardExactlyOnce() {
+        int partitions = 7;
+        Set<Integer> shards = new HashSet<>();
+        int total = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            for (Integer shard : Partitioning.shardsOf(partition, partitions)) {
+                if (shard != null) {
+                    shards.add(shard);
+                    total++;
+                }
+            }
+        }
+        assertEquals(Partitioning.SHARDS, shards.size());
+        assertEquals(Partitioning.SHARDS, total);
+    }
+}
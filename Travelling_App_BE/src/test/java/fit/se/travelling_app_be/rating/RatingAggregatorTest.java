@@ -0,0 +1,90 @@
+package fit.se.travelling_app_be.rating;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.RatingJournalEntry;
+import fit.se.travelling_app_be.entity.Review;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the configured MongoDB; each test uses its own destination id
+@SpringBootTest
+class RatingAggregatorTest {
+    
+    @Autowired
+    private RatingAggregator ratingAggregator;
+    
+    @Autowired
+    private RatingJournal journal;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final String destinationId = "test-" + UUID.randomUUID();
+    
+    @BeforeEach
+    void setUp() {
+        // Seed data: two reviews but no maintained aggregates, only a stale reviewCount
+        Destination destination = new Destination();
+        destination.setId(destinationId);
+        destination.setName(destinationId);
+        destination.setCountry("Test");
+        destination.setReviewCount(7);
+        mongoTemplate.insert(destination);
+        insertReview(4);
+        insertReview(2);
+    }
+    
+    @AfterEach
+    void cleanUp() {
+        Query query = Query.query(Criteria.where("destinationId").is(destinationId));
+        mongoTemplate.remove(query, Review.class);
+        mongoTemplate.remove(query, RatingJournalEntry.class);
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(destinationId)), Destination.class);
+    }
+    
+    @Test
+    void firstReviewOnUntrackedDestinationKeepsExistingReviews() {
+        insertReview(5);
+        journal.append(destinationId, RatingDelta.added(5));
+        
+        assertTrue(ratingAggregator.apply(destinationId, RatingDelta.added(5), "batch-1"));
+        
+        Destination destination = mongoTemplate.findById(destinationId, Destination.class);
+        assertEquals(3, destination.getReviewCount());
+        assertEquals(11L, destination.getRatingSum());
+        assertEquals(1, destination.getRatingCounts().get("5"));
+    }
+    
+    @Test
+    void firstDeleteOnUntrackedDestinationNeverGoesNegative() {
+        mongoTemplate.remove(Query.query(Criteria.where("destinationId").is(destinationId).and("rating").is(2)),
+            Review.class);
+        journal.append(destinationId, RatingDelta.removed(2));
+        
+        assertTrue(ratingAggregator.apply(destinationId, RatingDelta.removed(2), "batch-1"));
+        
+        Destination destination = mongoTemplate.findById(destinationId, Destination.class);
+        assertEquals(1, destination.getReviewCount());
+        assertEquals(4L, destination.getRatingSum());
+        assertEquals(0, destination.getRatingCounts().get("2"));
+        assertEquals(4.0, destination.getRating());
+    }
+    
+    private void insertReview(int rating) {
+        Review review = new Review();
+        review.setDestinationId(destinationId);
+        review.setUserId("user-" + UUID.randomUUID());
+        review.setRating(rating);
+        mongoTemplate.insert(review);
+    }
+}
@@ -0,0 +1,81 @@
+package fit.se.travelling_app_be.rating;
+
+import fit.se.travelling_app_be.entity.Destination;
+import fit.se.travelling_app_be.entity.RatingJournalEntry;
+import fit.se.travelling_app_be.entity.Review;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the configured MongoDB; each test uses its own destination id
+@SpringBootTest
+class RatingReconcilerTest {
+    
+    @Autowired
+    private RatingReconciler ratingReconciler;
+    
+    @Autowired
+    private RatingJournal journal;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final String destinationId = "test-" + UUID.randomUUID();
+    
+    @BeforeEach
+    void setUp() {
+        // A five-star review whose delta has not reached the destination yet
+        Destination destination = new Destination();
+        destination.setId(destinationId);
+        destination.setName(destinationId);
+        destination.setCountry("Test");
+        destination.setRatingSum(0L);
+        destination.setReviewCount(0);
+        mongoTemplate.insert(destination);
+        
+        Review review = new Review();
+        review.setDestinationId(destinationId);
+        review.setUserId("user-" + UUID.randomUUID());
+        review.setRating(5);
+        mongoTemplate.insert(review);
+    }
+    
+    @AfterEach
+    void cleanUp() {
+        Query query = Query.query(Criteria.where("destinationId").is(destinationId));
+        mongoTemplate.remove(query, Review.class);
+        mongoTemplate.remove(query, RatingJournalEntry.class);
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(destinationId)), Destination.class);
+    }
+    
+    @Test
+    void skipsDestinationsWithPendingJournalEntries() {
+        journal.append(destinationId, RatingDelta.added(5));
+        
+        ratingReconciler.reconcile();
+        
+        // Left to the flush, which would otherwise count the review a second time
+        Destination destination = mongoTemplate.findById(destinationId, Destination.class);
+        assertEquals(0, destination.getReviewCount());
+        assertEquals(0L, destination.getRatingSum());
+    }
+    
+    @Test
+    void correctsDriftOnceNothingIsPending() {
+        ratingReconciler.reconcile();
+        
+        Destination destination = mongoTemplate.findById(destinationId, Destination.class);
+        assertEquals(1, destination.getReviewCount());
+        assertEquals(5L, destination.getRatingSum());
+        assertEquals(5.0, destination.getRating());
+    }
+}
@@ -0,0 +1,80 @@
+package fit.se.travelling_app_be.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    
+    private static final long TICK = 1000;
+    
+    @Test
+    void rejectsEntriesDueWithinTheCurrentTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 60, 0);
+        
+        assertFalse(wheel.add(500, "now"));
+        assertTrue(wheel.add(5000, "later"));
+        assertEquals(1, wheel.size());
+    }
+    
+    @Test
+    void firesWhenTheClockReachesTheEntry() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 60, 0);
+        wheel.add(5000, "a");
+        List<String> fired = new ArrayList<>();
+        
+        wheel.advance(4999, fired::add);
+        assertTrue(fired.isEmpty());
+        
+        wheel.advance(5000, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void cascadesFarFutureEntriesDownTheLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 60, 0);
+        long threeHours = 3 * 3_600_000L + 123;
+        wheel.add(threeHours, "far");
+        List<String> fired = new ArrayList<>();
+        
+        wheel.advance(threeHours - TICK, fired::add);
+        assertTrue(fired.isEmpty());
+        
+        wheel.advance(threeHours, fired::add);
+        assertEquals(List.of("far"), fired);
+    }
+    
+    @Test
+    void firesEveryEntryWithinOneTickOfItsDueTime() {
+        long start = 1_700_000_000_123L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 60, start);
+        Random random = new Random(42);
+        Map<Integer, Long> dueTimes = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long due = start + 2 * TICK + (long) (random.nextDouble() * 26 * 3_600_000L);
+            dueTimes.put(i, due);
+            assertTrue(wheel.add(due, i));
+        }
+        
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = start; now <= start + 27 * 3_600_000L; now += TICK) {
+            long clock = now;
+            wheel.advance(clock, id -> firedAt.put(id, clock));
+        }
+        
+        assertEquals(dueTimes.size(), firedAt.size());
+        assertEquals(0, wheel.size());
+        dueTimes.forEach((id, due) -> {
+            long fired = firedAt.get(id);
+            assertTrue(fired > due - TICK, "fired early: " + id);
+            assertTrue(fired < due + TICK, "fired late: " + id);
+        });
+    }
+}
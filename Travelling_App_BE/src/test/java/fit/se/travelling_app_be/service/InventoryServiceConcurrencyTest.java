@@ -0,0 +1,217 @@
+package fit.se.travelling_app_be.service;
+
+import fit.se.travelling_app_be.entity.Booking;
+import fit.se.travelling_app_be.entity.DepartureInventory;
+import fit.se.travelling_app_be.entity.DestinationSnapshot;
+import fit.se.travelling_app_be.entity.OutboxEvent;
+import fit.se.travelling_app_be.entity.SeatHold;
+import fit.se.travelling_app_be.exception.SoldOutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the configured MongoDB, like the context test; each test uses its own destination id
+@SpringBootTest
+class InventoryServiceConcurrencyTest {
+    
+    private static final LocalDate DEPARTURE = LocalDate.of(2030, 7, 1);
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final String destinationId = "test-" + UUID.randomUUID();
+    
+    @AfterEach
+    void cleanUp() {
+        Query query = Query.query(Criteria.where("destinationId").is(destinationId));
+        mongoTemplate.remove(query, DepartureInventory.class);
+        mongoTemplate.remove(query, SeatHold.class);
+        mongoTemplate.remove(Query.query(Criteria.where("destination.id").is(destinationId)), Booking.class);
+    }
+    
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int capacity = 500;
+        int attempts = 2000;
+        inventoryService.setCapacity(destinationId, DEPARTURE, capacity);
+        
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            String userId = "user-" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserve(destinationId, DEPARTURE, 1, userId);
+                    reserved.incrementAndGet();
+                } catch (SoldOutException e) {
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertEquals(capacity, reserved.get());
+        assertEquals(attempts - capacity, soldOut.get());
+        assertEquals(0, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        assertEquals(capacity, mongoTemplate.count(
+            Query.query(Criteria.where("destinationId").is(destinationId)), SeatHold.class));
+    }
+    
+    @Test
+    void firstReservationsOnUnconfiguredDepartureShareTheDefaultCapacity() throws Exception {
+        int defaultCapacity = inventoryService.getAvailability(destinationId, DEPARTURE).getCapacity();
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < defaultCapacity * 3; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    inventoryService.reserve(destinationId, DEPARTURE, 1, "user");
+                    reserved.incrementAndGet();
+                } catch (SoldOutException e) {
+                    // expected once the departure is full
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertEquals(defaultCapacity, reserved.get());
+        assertEquals(0, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+    }
+    
+    @Test
+    void releaseReturnsSeatsOnce() {
+        inventoryService.setCapacity(destinationId, DEPARTURE, 10);
+        SeatHold hold = inventoryService.reserve(destinationId, DEPARTURE, 4, "user");
+        assertTrue(inventoryService.attach(hold.getId(), "booking-" + destinationId, true));
+        assertEquals(6, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        
+        assertEquals(4, inventoryService.release("booking-" + destinationId));
+        assertEquals(0, inventoryService.release("booking-" + destinationId));
+        assertEquals(10, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+    }
+    
+    @Test
+    void expiredHoldsGoBackIntoInventory() {
+        inventoryService.setCapacity(destinationId, DEPARTURE, 3);
+        SeatHold hold = inventoryService.reserve(destinationId, DEPARTURE, 3, "user");
+        assertThrows(SoldOutException.class, () -> inventoryService.reserve(destinationId, DEPARTURE, 1, "user"));
+        
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(hold.getId())),
+            Update.update("expiresAt", LocalDateTime.now().minusMinutes(1)), SeatHold.class);
+        inventoryService.expireHolds();
+        
+        assertEquals(3, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        assertFalse(inventoryService.attach(hold.getId(), "late-booking", true));
+    }
+    
+    @Test
+    void confirmingAfterTheHoldExpiredTakesTheSeatsAgain() {
+        String bookingId = "booking-" + destinationId;
+        inventoryService.setCapacity(destinationId, DEPARTURE, 5);
+        SeatHold hold = inventoryService.reserve(destinationId, DEPARTURE, 3, "user");
+        assertTrue(inventoryService.attach(hold.getId(), bookingId, false));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(hold.getId())),
+            Update.update("expiresAt", LocalDateTime.now().minusMinutes(1)), SeatHold.class);
+        inventoryService.expireHolds();
+        assertEquals(5, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        
+        assertTrue(inventoryService.confirm(bookingId));
+        assertFalse(inventoryService.confirm(bookingId));
+        assertEquals(2, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        
+        assertEquals(3, inventoryService.release(bookingId));
+        inventoryService.reserve(destinationId, DEPARTURE, 4, "user");
+        assertThrows(SoldOutException.class, () -> inventoryService.confirm(bookingId));
+    }
+    
+    @Test
+    void expiredHoldCancelsItsPendingBookingWithAnOutboxEvent() {
+        inventoryService.setCapacity(destinationId, DEPARTURE, 5);
+        Booking booking = insertBooking("PENDING", 2);
+        SeatHold hold = inventoryService.reserve(destinationId, DEPARTURE, 2, "user");
+        assertTrue(inventoryService.attach(hold.getId(), booking.getId(), false));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(hold.getId())),
+            Update.update("expiresAt", LocalDateTime.now().minusMinutes(1)), SeatHold.class);
+        
+        inventoryService.expireHolds();
+        
+        Booking cancelled = mongoTemplate.findById(booking.getId(), Booking.class);
+        assertEquals("CANCELLED", cancelled.getStatus());
+        assertTrue(cancelled.getOutbox().stream()
+            .anyMatch(event -> OutboxEvent.BOOKING_STATUS_CHANGED.equals(event.getType())));
+        assertNotNull(cancelled.getOutboxDueAt());
+    }
+    
+    @Test
+    void capacityCannotDropBelowTakenSeats() {
+        inventoryService.setCapacity(destinationId, DEPARTURE, 10);
+        inventoryService.reserve(destinationId, DEPARTURE, 7, "user");
+        
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.setCapacity(destinationId, DEPARTURE, 5));
+        DepartureInventory inventory = inventoryService.setCapacity(destinationId, DEPARTURE, 12);
+        assertEquals(12, inventory.getCapacity());
+        assertEquals(5, inventory.getRemaining());
+    }
+    
+    @Test
+    void firstReservationLeavesSeatsOfExistingBookingsTaken() {
+        int defaultCapacity = inventoryService.getAvailability(destinationId, DEPARTURE).getCapacity();
+        insertBooking("CONFIRMED", 4);
+        insertBooking("PENDING", 2);
+        insertBooking("CANCELLED", 5);
+        assertEquals(defaultCapacity - 6, inventoryService.getAvailability(destinationId, DEPARTURE).getRemaining());
+        
+        inventoryService.reserve(destinationId, DEPARTURE, 1, "user");
+        
+        DepartureInventory inventory = inventoryService.getAvailability(destinationId, DEPARTURE);
+        assertEquals(defaultCapacity, inventory.getCapacity());
+        assertEquals(defaultCapacity - 7, inventory.getRemaining());
+        assertThrows(SoldOutException.class,
+            () -> inventoryService.reserve(destinationId, DEPARTURE, defaultCapacity - 6, "user"));
+    }
+    
+    private Booking insertBooking(String status, int travelers) {
+        Booking booking = new Booking();
+        booking.setDestination(new DestinationSnapshot(destinationId, "Test", null, null, null, null));
+        booking.setUserId("user");
+        booking.setStatus(status);
+        booking.setTravelDate(DEPARTURE.atTime(9, 0));
+        booking.setNumberOfTravelers(travelers);
+        return mongoTemplate.insert(booking);
+    }
+}